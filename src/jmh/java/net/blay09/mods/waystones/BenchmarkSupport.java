@@ -0,0 +1,62 @@
+package net.blay09.mods.waystones;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import net.blay09.mods.waystones.config.WaystonesConfig;
+import net.blay09.mods.waystones.core.Waystone;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.registry.Bootstrap;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Sets up just enough of Minecraft and the mod to run the benchmarks without a server, and creates the synthetic data sets they work on.
+ */
+public class BenchmarkSupport {
+
+    private static boolean initialized;
+
+    public static synchronized void init() {
+        if (initialized) {
+            return;
+        }
+
+        Bootstrap.register();
+
+        // Loading an empty in-memory config makes Forge fill in all defaults
+        WaystonesConfig.commonSpec.setConfig(CommentedConfig.inMemory());
+        WaystonesConfig.serverSpec.setConfig(CommentedConfig.inMemory());
+        WaystonesConfig.onSpecLoaded(WaystonesConfig.commonSpec);
+        WaystonesConfig.onSpecLoaded(WaystonesConfig.serverSpec);
+        initialized = true;
+    }
+
+    /**
+     * Creates waystones spread over a square area that grows with the amount of waystones, roughly one waystone per 16 chunks.
+     */
+    public static List<Waystone> createWaystones(int count, long seed) {
+        Random random = new Random(seed);
+        int range = Math.max(512, (int) Math.sqrt(count) * 64);
+        List<Waystone> waystones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RegistryKey<World> dimension = i % 10 == 0 ? World.THE_NETHER : World.OVERWORLD;
+            BlockPos pos = new BlockPos(random.nextInt(range * 2) - range, 64 + random.nextInt(64), random.nextInt(range * 2) - range);
+            UUID ownerUid = i % 3 == 0 ? null : new UUID(random.nextLong(), random.nextLong());
+            Waystone waystone = new Waystone(new UUID(random.nextLong(), random.nextLong()), dimension, pos, ownerUid == null, ownerUid);
+            waystone.setName("Waystone " + i);
+            waystone.setGlobal(i % 20 == 0);
+            waystones.add(waystone);
+        }
+
+        return waystones;
+    }
+
+    public static BlockPos randomPos(Random random, int count) {
+        int range = Math.max(512, (int) Math.sqrt(count) * 64);
+        return new BlockPos(random.nextInt(range * 2) - range, 64, random.nextInt(range * 2) - range);
+    }
+}
@@ -0,0 +1,100 @@
+package net.blay09.mods.waystones.core;
+
+import net.blay09.mods.waystones.BenchmarkSupport;
+import net.minecraft.nbt.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old string list format for player activations against the long array format, both in memory and serialized. The serialized sizes
+ * are printed during setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActivationStorageBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int activationCount;
+
+    private List<UUID> waystoneUids;
+    private ListNBT stringList;
+    private long[] longArray;
+    private PersistentPlayerWaystoneData.ActivatedWaystones activatedWaystones;
+    private byte[] serializedStringList;
+    private byte[] serializedLongArray;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkSupport.init();
+        Random random = new Random(42);
+        waystoneUids = new ArrayList<>(activationCount);
+        for (int i = 0; i < activationCount; i++) {
+            waystoneUids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+
+        stringList = writeStringList();
+        activatedWaystones = PersistentPlayerWaystoneData.readLegacyActivatedWaystones(stringList);
+        longArray = PersistentPlayerWaystoneData.writeActivatedWaystones(activatedWaystones).getAsLongArray();
+
+        serializedStringList = serialize(stringList);
+        serializedLongArray = serialize(new LongArrayNBT(longArray));
+        System.out.printf("%n%d activations: string list %d bytes, long array %d bytes%n", activationCount, serializedStringList.length, serializedLongArray.length);
+    }
+
+    @Benchmark
+    public ListNBT writeStringList() {
+        ListNBT list = new ListNBT();
+        for (UUID waystoneUid : waystoneUids) {
+            list.add(StringNBT.valueOf(waystoneUid.toString()));
+        }
+        return list;
+    }
+
+    @Benchmark
+    public LongArrayNBT writeLongArray() {
+        return PersistentPlayerWaystoneData.writeActivatedWaystones(activatedWaystones);
+    }
+
+    @Benchmark
+    public PersistentPlayerWaystoneData.ActivatedWaystones readStringList() {
+        return PersistentPlayerWaystoneData.readLegacyActivatedWaystones(stringList);
+    }
+
+    @Benchmark
+    public PersistentPlayerWaystoneData.ActivatedWaystones readLongArray() {
+        return PersistentPlayerWaystoneData.readActivatedWaystones(longArray);
+    }
+
+    @Benchmark
+    public CompoundNBT deserializeStringList() throws IOException {
+        return deserialize(serializedStringList);
+    }
+
+    @Benchmark
+    public CompoundNBT deserializeLongArray() throws IOException {
+        return deserialize(serializedLongArray);
+    }
+
+    private static byte[] serialize(INBT tag) throws IOException {
+        CompoundNBT compound = new CompoundNBT();
+        compound.put("Waystones", tag);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompressedStreamTools.write(compound, new DataOutputStream(out));
+        return out.toByteArray();
+    }
+
+    private static CompoundNBT deserialize(byte[] data) throws IOException {
+        return CompressedStreamTools.read(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+
+}
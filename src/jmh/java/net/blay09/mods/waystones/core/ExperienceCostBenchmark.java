@@ -0,0 +1,43 @@
+package net.blay09.mods.waystones.core;
+
+import net.blay09.mods.waystones.BenchmarkSupport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExperienceCostBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int waystoneCount;
+
+    private List<Waystone> waystones;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        BenchmarkSupport.init();
+        waystones = BenchmarkSupport.createWaystones(waystoneCount, 42);
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public int getExperienceLevelCost() {
+        Waystone waystone = waystones.get(random.nextInt(waystones.size()));
+        return PlayerWaystoneManager.getExperienceLevelCost(waystone, WarpMode.WARP_STONE, false, random.nextInt(10000), 0);
+    }
+
+    @Benchmark
+    public int getExperienceLevelCostDimensional() {
+        Waystone waystone = waystones.get(random.nextInt(waystones.size()));
+        return PlayerWaystoneManager.getExperienceLevelCost(waystone, WarpMode.WARP_STONE, true, 0, 2);
+    }
+
+}
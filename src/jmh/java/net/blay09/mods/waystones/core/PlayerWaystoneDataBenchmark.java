@@ -0,0 +1,73 @@
+package net.blay09.mods.waystones.core;
+
+import net.blay09.mods.waystones.BenchmarkSupport;
+import net.blay09.mods.waystones.api.IWaystone;
+import net.minecraft.nbt.CompoundNBT;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a single player that has all waystones of the data set activated.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlayerWaystoneDataBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int waystoneCount;
+
+    private final UUID playerId = new UUID(1, 1);
+    private final CompoundNBT playerData = new CompoundNBT();
+    private PersistentPlayerWaystoneData playerWaystoneData;
+    private List<Waystone> waystones;
+    private Waystone newWaystone;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        BenchmarkSupport.init();
+        waystones = BenchmarkSupport.createWaystones(waystoneCount + 1, 42);
+        newWaystone = waystones.remove(waystones.size() - 1);
+
+        // Waystone proxies resolve against the client-side manager when there is no server running
+        WaystoneManager waystoneManager = WaystoneManager.get();
+        playerWaystoneData = new PersistentPlayerWaystoneData();
+        for (Waystone waystone : waystones) {
+            waystoneManager.addWaystone(waystone);
+            playerWaystoneData.activateWaystone(playerId, playerData, waystone);
+        }
+        waystoneManager.addWaystone(newWaystone);
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public void activateAndDeactivate() {
+        playerWaystoneData.activateWaystone(playerId, playerData, newWaystone);
+        playerWaystoneData.deactivateWaystone(playerId, playerData, newWaystone);
+    }
+
+    @Benchmark
+    public boolean isWaystoneActivated() {
+        return playerWaystoneData.isWaystoneActivated(playerId, playerData, waystones.get(random.nextInt(waystones.size())));
+    }
+
+    @Benchmark
+    public boolean isWaystoneActivatedUncached() {
+        playerWaystoneData.invalidateCache(playerId);
+        return playerWaystoneData.isWaystoneActivated(playerId, playerData, waystones.get(random.nextInt(waystones.size())));
+    }
+
+    @Benchmark
+    public List<IWaystone> getWaystones() {
+        return playerWaystoneData.getWaystones(playerId, playerData);
+    }
+
+}
@@ -0,0 +1,99 @@
+package net.blay09.mods.waystones.core;
+
+import net.blay09.mods.waystones.BenchmarkSupport;
+import net.blay09.mods.waystones.api.IWaystone;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WaystoneManagerBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int waystoneCount;
+
+    private WaystoneManager waystoneManager;
+    private CompoundNBT savedData;
+    private List<Waystone> waystones;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        BenchmarkSupport.init();
+        waystones = BenchmarkSupport.createWaystones(waystoneCount, 42);
+        waystoneManager = new WaystoneManager();
+        for (Waystone waystone : waystones) {
+            waystoneManager.addWaystone(waystone);
+        }
+        savedData = waystoneManager.write(new CompoundNBT());
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public CompoundNBT write() {
+        return waystoneManager.write(new CompoundNBT());
+    }
+
+    @Benchmark
+    public WaystoneManager read() {
+        WaystoneManager result = new WaystoneManager();
+        result.read(savedData);
+        return result;
+    }
+
+    @Benchmark
+    public Optional<IWaystone> getWaystoneById() {
+        return waystoneManager.getWaystoneById(waystones.get(random.nextInt(waystones.size())).getWaystoneUid());
+    }
+
+    @Benchmark
+    public Optional<IWaystone> getWaystoneByIdMissing() {
+        return waystoneManager.getWaystoneById(new UUID(random.nextLong(), random.nextLong()));
+    }
+
+    @Benchmark
+    public Optional<IWaystone> findWaystoneByName() {
+        return waystoneManager.findWaystoneByName(waystones.get(random.nextInt(waystones.size())).getName());
+    }
+
+    @Benchmark
+    public Optional<IWaystone> findWaystoneByNameIgnoreCase() {
+        return waystoneManager.findWaystoneByName(waystones.get(random.nextInt(waystones.size())).getName().toUpperCase(Locale.ROOT), true);
+    }
+
+    @Benchmark
+    public List<IWaystone> findWaystonesByNamePrefix() {
+        return waystoneManager.findWaystonesByNamePrefix("Waystone " + random.nextInt(100), false);
+    }
+
+    @Benchmark
+    public Optional<IWaystone> getNearestWaystone() {
+        BlockPos pos = BenchmarkSupport.randomPos(random, waystoneCount);
+        return waystoneManager.getNearestWaystone(World.OVERWORLD, pos, it -> true);
+    }
+
+    @Benchmark
+    public List<IWaystone> getWaystonesInRadius() {
+        BlockPos pos = BenchmarkSupport.randomPos(random, waystoneCount);
+        return waystoneManager.getWaystonesInRadius(World.OVERWORLD, pos, 256);
+    }
+
+    @Benchmark
+    public List<IWaystone> getGlobalWaystones() {
+        return waystoneManager.getGlobalWaystones();
+    }
+
+}
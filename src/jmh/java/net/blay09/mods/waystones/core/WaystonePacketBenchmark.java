@@ -0,0 +1,60 @@
+package net.blay09.mods.waystones.core;
+
+import io.netty.buffer.Unpooled;
+import net.blay09.mods.waystones.BenchmarkSupport;
+import net.blay09.mods.waystones.api.IWaystone;
+import net.minecraft.network.PacketBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes a full list of waystones the way the known waystones message does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WaystonePacketBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int waystoneCount;
+
+    private List<Waystone> waystones;
+    private PacketBuffer buffer;
+    private PacketBuffer encoded;
+
+    @Setup
+    public void setup() {
+        BenchmarkSupport.init();
+        waystones = BenchmarkSupport.createWaystones(waystoneCount, 42);
+        buffer = new PacketBuffer(Unpooled.buffer());
+        encoded = new PacketBuffer(Unpooled.buffer());
+        for (Waystone waystone : waystones) {
+            Waystone.write(encoded, waystone);
+        }
+    }
+
+    @Benchmark
+    public int write() {
+        buffer.clear();
+        for (Waystone waystone : waystones) {
+            Waystone.write(buffer, waystone);
+        }
+        return buffer.writerIndex();
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) {
+        encoded.readerIndex(0);
+        for (int i = 0; i < waystoneCount; i++) {
+            IWaystone waystone = Waystone.read(encoded);
+            blackhole.consume(waystone);
+        }
+    }
+
+}
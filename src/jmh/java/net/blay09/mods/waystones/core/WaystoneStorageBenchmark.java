@@ -0,0 +1,85 @@
+package net.blay09.mods.waystones.core;
+
+import net.blay09.mods.waystones.BenchmarkSupport;
+import net.blay09.mods.waystones.api.IWaystone;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.CompressedStreamTools;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary waystone storage against the vanilla compressed NBT file, both including the disk write.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WaystoneStorageBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int waystoneCount;
+
+    private Path directory;
+    private Path binaryFile;
+    private File nbtFile;
+    private List<IWaystone> waystones;
+    private WaystoneManager waystoneManager;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkSupport.init();
+        waystones = new ArrayList<>(BenchmarkSupport.createWaystones(waystoneCount, 42));
+        waystoneManager = new WaystoneManager();
+        for (IWaystone waystone : waystones) {
+            waystoneManager.addWaystone(waystone);
+        }
+
+        directory = Files.createTempDirectory("waystones-benchmark");
+        binaryFile = directory.resolve("waystones.bin");
+        nbtFile = directory.resolve("waystones.dat").toFile();
+        WaystoneBinaryStorage.write(binaryFile, waystones, 1);
+        writeNbt();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(binaryFile);
+        Files.deleteIfExists(nbtFile.toPath());
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public void writeBinary() throws IOException {
+        WaystoneBinaryStorage.write(binaryFile, waystones, 1);
+    }
+
+    @Benchmark
+    public WaystoneBinaryStorage.Snapshot readBinary() throws IOException {
+        return WaystoneBinaryStorage.read(binaryFile);
+    }
+
+    @Benchmark
+    public void writeNbt() throws IOException {
+        CompoundNBT data = new CompoundNBT();
+        data.put("data", waystoneManager.write(new CompoundNBT()));
+        CompressedStreamTools.writeCompressed(data, nbtFile);
+    }
+
+    @Benchmark
+    public WaystoneManager readNbt() throws IOException {
+        CompoundNBT data = CompressedStreamTools.readCompressed(nbtFile);
+        WaystoneManager result = new WaystoneManager();
+        result.read(data.getCompound("data"));
+        return result;
+    }
+
+}
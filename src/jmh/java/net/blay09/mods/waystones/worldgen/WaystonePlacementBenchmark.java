@@ -0,0 +1,65 @@
+package net.blay09.mods.waystones.worldgen;
+
+import net.blay09.mods.waystones.BenchmarkSupport;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks a square of chunks for whether a waystone should generate in them. The parameter is the amount of chunks checked per invocation.
+ * Also compares against the previous Random based selection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WaystonePlacementBenchmark {
+
+    private static final int CHUNK_DISTANCE = 30;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int chunkCount;
+
+    private final ResourceLocation dimension = World.OVERWORLD.getLocation();
+    private int size;
+
+    @Setup
+    public void setup() {
+        BenchmarkSupport.init();
+        size = (int) Math.ceil(Math.sqrt(chunkCount));
+    }
+
+    @Benchmark
+    public int isWaystoneChunk() {
+        int found = 0;
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (int chunkX = -size / 2; chunkX < size - size / 2; chunkX++) {
+            for (int chunkZ = -size / 2; chunkZ < size - size / 2; chunkZ++) {
+                pos.setPos(chunkX << 4, 64, chunkZ << 4);
+                if (WaystonePlacement.isWaystoneChunk(1234L, dimension, pos)) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int isWaystoneChunkLegacy() {
+        int found = 0;
+        for (int chunkX = -size / 2; chunkX < size - size / 2; chunkX++) {
+            for (int chunkZ = -size / 2; chunkZ < size - size / 2; chunkZ++) {
+                if (WaystonePlacement.isWaystoneChunkLegacy(1234L, CHUNK_DISTANCE, chunkX << 4, chunkZ << 4)) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+}
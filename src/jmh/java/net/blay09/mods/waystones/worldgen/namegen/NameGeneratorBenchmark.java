@@ -0,0 +1,59 @@
+package net.blay09.mods.waystones.worldgen.namegen;
+
+import net.blay09.mods.waystones.BenchmarkSupport;
+import net.blay09.mods.waystones.core.Waystone;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.nbt.StringNBT;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates a name with a given amount of names already taken. The generator is reset every iteration so the amount of used names stays close to
+ * the parameter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NameGeneratorBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int usedNameCount;
+
+    private CompoundNBT usedNames;
+    private NameGenerator nameGenerator;
+    private Waystone waystone;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        BenchmarkSupport.init();
+        waystone = BenchmarkSupport.createWaystones(1, 42).get(0);
+
+        // Fill the used names with what the generator itself would produce, so that collisions happen as they would in a real world
+        NameGenerator generator = new NameGenerator();
+        Random random = new Random(42);
+        for (int i = 0; i < usedNameCount; i++) {
+            generator.getName(waystone, random);
+        }
+        usedNames = generator.write(new CompoundNBT());
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        nameGenerator = new NameGenerator();
+        nameGenerator.read(usedNames);
+        random = new Random(1337);
+    }
+
+    @Benchmark
+    public String getName() {
+        return nameGenerator.getName(waystone, random);
+    }
+
+}
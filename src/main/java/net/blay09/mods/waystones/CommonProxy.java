@@ -1,8 +1,11 @@
 package net.blay09.mods.waystones;
 
+import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.util.SoundEvent;
 import net.minecraft.util.math.BlockPos;
 
+import javax.annotation.Nullable;
+
 public class CommonProxy {
 
     public void playSound(SoundEvent soundEvent, BlockPos pos, float pitch) {
@@ -14,4 +17,9 @@ public class CommonProxy {
 
     public void setWaystoneCooldowns(long inventoryButtonCooldownUntil, long warpStoneCooldownUntil) {
     }
+
+    @Nullable
+    public PlayerEntity getClientPlayer() {
+        return null;
+    }
 }
@@ -2,12 +2,14 @@ package net.blay09.mods.waystones;
 
 import com.electronwill.nightconfig.core.file.CommentedFileConfig;
 import com.electronwill.nightconfig.core.io.WritingMode;
+import net.blay09.mods.waystones.api.WaystonesAPI;
 import net.blay09.mods.waystones.block.ModBlocks;
 import net.blay09.mods.waystones.client.ClientProxy;
 import net.blay09.mods.waystones.client.ModRenderers;
 import net.blay09.mods.waystones.client.ModScreens;
 import net.blay09.mods.waystones.config.WaystonesConfig;
 import net.blay09.mods.waystones.container.ModContainers;
+import net.blay09.mods.waystones.core.InternalMethodsImpl;
 import net.blay09.mods.waystones.item.ModItems;
 import net.blay09.mods.waystones.network.NetworkHandler;
 import net.blay09.mods.waystones.tileentity.ModTileEntities;
@@ -52,6 +54,8 @@ public class Waystones {
     };
 
     public Waystones() {
+        WaystonesAPI.__internalMethods = new InternalMethodsImpl();
+
         DeferredWorkQueue.runLater(NetworkHandler::init);
         DeferredWorkQueue.runLater(ModStats::registerStats);
 
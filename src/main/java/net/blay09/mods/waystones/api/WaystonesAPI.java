@@ -0,0 +1,30 @@
+package net.blay09.mods.waystones.api;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Entry point for other mods to look up waystones. Lookups run against the server's waystones, or the ones known to the client on a client.
+ */
+public class WaystonesAPI {
+
+    public static InternalMethods __internalMethods;
+
+    public static Optional<IWaystone> findWaystoneByName(String name) {
+        return __internalMethods.findWaystoneByName(name, false);
+    }
+
+    public static Optional<IWaystone> findWaystoneByName(String name, boolean ignoreCase) {
+        return __internalMethods.findWaystoneByName(name, ignoreCase);
+    }
+
+    public static List<IWaystone> findWaystonesByNamePrefix(String prefix, boolean ignoreCase) {
+        return __internalMethods.findWaystonesByNamePrefix(prefix, ignoreCase);
+    }
+
+    public interface InternalMethods {
+        Optional<IWaystone> findWaystoneByName(String name, boolean ignoreCase);
+
+        List<IWaystone> findWaystonesByNamePrefix(String prefix, boolean ignoreCase);
+    }
+}
@@ -0,0 +1,28 @@
+package net.blay09.mods.waystones.api;
+
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraftforge.eventbus.api.Event;
+
+import java.util.List;
+
+/**
+ * This event is fired on MinecraftForge.EVENT_BUS when several waystones were activated for a player at once, e.g. global waystones on login.
+ * It is fired after the individual {@link WaystoneActivatedEvent}s for each of them, for listeners that would rather handle the whole batch at once.
+ */
+public class WaystonesActivatedEvent extends Event {
+    private final PlayerEntity player;
+    private final List<IWaystone> waystones;
+
+    public WaystonesActivatedEvent(PlayerEntity player, List<IWaystone> waystones) {
+        this.player = player;
+        this.waystones = waystones;
+    }
+
+    public PlayerEntity getPlayer() {
+        return player;
+    }
+
+    public List<IWaystone> getWaystones() {
+        return waystones;
+    }
+}
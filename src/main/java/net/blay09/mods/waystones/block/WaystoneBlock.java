@@ -2,6 +2,7 @@ package net.blay09.mods.waystones.block;
 
 import net.blay09.mods.waystones.Waystones;
 import net.blay09.mods.waystones.api.IWaystone;
+import net.blay09.mods.waystones.client.ParticleBudget;
 import net.blay09.mods.waystones.config.WaystonesConfig;
 import net.blay09.mods.waystones.core.*;
 import net.blay09.mods.waystones.tileentity.WaystoneTileEntity;
@@ -222,7 +223,7 @@ public class WaystoneBlock extends Block {
                 PlayerWaystoneManager.activateWaystone(((PlayerEntity) placer), waystone);
 
                 if (!world.isRemote) {
-                    WaystoneSyncManager.sendKnownWaystones(((PlayerEntity) placer));
+                    WaystoneSyncManager.sendWaystoneAdded(((PlayerEntity) placer), waystone);
                 }
             }
 
@@ -315,14 +316,15 @@ public class WaystoneBlock extends Block {
                 chatComponent.mergeStyle(TextFormatting.YELLOW);
                 player.sendMessage(chatComponent, Util.DUMMY_UUID);
 
-                WaystoneSyncManager.sendKnownWaystones(player);
+                WaystoneSyncManager.sendWaystoneAdded(player, waystone);
             }
 
             notifyObserversOfActivation(world, pos);
 
             if (world.isRemote) {
                 Waystones.proxy.playSound(SoundEvents.ENTITY_PLAYER_LEVELUP, pos, 1f);
-                for (int i = 0; i < 32; i++) {
+                int particleCount = ParticleBudget.allocate(pos, 64) / 2;
+                for (int i = 0; i < particleCount; i++) {
                     world.addParticle(ParticleTypes.ENCHANT, pos.getX() + 0.5 + (world.rand.nextDouble() - 0.5) * 2, pos.getY() + 3, pos.getZ() + 0.5 + (world.rand.nextDouble() - 0.5) * 2, 0, -5, 0);
                     world.addParticle(ParticleTypes.ENCHANT, pos.getX() + 0.5 + (world.rand.nextDouble() - 0.5) * 2, pos.getY() + 4, pos.getZ() + 0.5 + (world.rand.nextDouble() - 0.5) * 2, 0, -5, 0);
                 }
@@ -368,9 +370,14 @@ public class WaystoneBlock extends Block {
         if (!WaystonesConfig.CLIENT.disableParticles.get() && random.nextFloat() < 0.75f) {
             WaystoneTileEntity tileEntity = (WaystoneTileEntity) world.getTileEntity(pos);
             PlayerEntity player = Minecraft.getInstance().player;
-            if (tileEntity != null && PlayerWaystoneManager.isWaystoneActivated(Objects.requireNonNull(player), tileEntity.getWaystone())) {
-                world.addParticle(ParticleTypes.PORTAL, pos.getX() + 0.5 + (random.nextDouble() - 0.5) * 1.5, pos.getY() + 0.5, pos.getZ() + 0.5 + (random.nextDouble() - 0.5) * 1.5, 0, 0, 0);
-                world.addParticle(ParticleTypes.ENCHANT, pos.getX() + 0.5 + (random.nextDouble() - 0.5) * 1.5, pos.getY() + 0.5, pos.getZ() + 0.5 + (random.nextDouble() - 0.5) * 1.5, 0, 0, 0);
+            if (tileEntity != null && tileEntity.isActivatedForClient(Objects.requireNonNull(player))) {
+                int particleCount = ParticleBudget.allocate(pos, 2);
+                if (particleCount >= 1) {
+                    world.addParticle(ParticleTypes.PORTAL, pos.getX() + 0.5 + (random.nextDouble() - 0.5) * 1.5, pos.getY() + 0.5, pos.getZ() + 0.5 + (random.nextDouble() - 0.5) * 1.5, 0, 0, 0);
+                }
+                if (particleCount >= 2) {
+                    world.addParticle(ParticleTypes.ENCHANT, pos.getX() + 0.5 + (random.nextDouble() - 0.5) * 1.5, pos.getY() + 0.5, pos.getZ() + 0.5 + (random.nextDouble() - 0.5) * 1.5, 0, 0, 0);
+                }
             }
         }
     }
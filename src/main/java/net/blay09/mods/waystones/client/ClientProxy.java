@@ -6,10 +6,12 @@ import net.blay09.mods.waystones.core.PlayerWaystoneManager;
 import net.minecraft.client.ClientBrandRetriever;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.audio.SimpleSound;
+import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.util.SoundEvent;
 import net.minecraft.util.math.BlockPos;
 
+import javax.annotation.Nullable;
 import java.util.Locale;
 
 public class ClientProxy extends CommonProxy {
@@ -31,6 +33,12 @@ public class ClientProxy extends CommonProxy {
         PlayerWaystoneManager.setWarpStoneCooldownUntil(Minecraft.getInstance().player, warpStoneCooldownUntil);
     }
 
+    @Nullable
+    @Override
+    public PlayerEntity getClientPlayer() {
+        return Minecraft.getInstance().player;
+    }
+
     @Override
     public boolean isVivecraftInstalled() {
         return isVivecraftInstalled;
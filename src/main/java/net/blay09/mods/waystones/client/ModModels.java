@@ -0,0 +1,66 @@
+package net.blay09.mods.waystones.client;
+
+import net.blay09.mods.waystones.Waystones;
+import net.blay09.mods.waystones.block.ModBlocks;
+import net.blay09.mods.waystones.block.WaystoneBlock;
+import net.blay09.mods.waystones.client.render.WaystoneBakedModel;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.renderer.BlockModelShapes;
+import net.minecraft.client.renderer.model.BakedQuad;
+import net.minecraft.client.renderer.model.IBakedModel;
+import net.minecraft.client.renderer.model.IUnbakedModel;
+import net.minecraft.client.renderer.model.ModelResourceLocation;
+import net.minecraft.client.renderer.model.ModelRotation;
+import net.minecraft.state.properties.DoubleBlockHalf;
+import net.minecraft.util.Direction;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ModelBakeEvent;
+import net.minecraftforge.client.event.ModelRegistryEvent;
+import net.minecraftforge.client.model.ModelLoader;
+import net.minecraftforge.client.model.data.EmptyModelData;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.*;
+
+@Mod.EventBusSubscriber(value = Dist.CLIENT, modid = Waystones.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD)
+public class ModModels {
+
+    private static final ResourceLocation OVERLAY_MODEL = new ResourceLocation(Waystones.MOD_ID, "block/waystone_active_overlay");
+
+    @SubscribeEvent
+    public static void onModelRegistry(ModelRegistryEvent event) {
+        ModelLoader.addSpecialModel(OVERLAY_MODEL);
+    }
+
+    @SubscribeEvent
+    public static void onModelBake(ModelBakeEvent event) {
+        IUnbakedModel overlayModel = event.getModelLoader().getUnbakedModel(OVERLAY_MODEL);
+        Map<Direction, List<BakedQuad>> overlayQuads = new EnumMap<>(Direction.class);
+        for (Direction facing : Direction.Plane.HORIZONTAL) {
+            // The tile entity renderer turns the model counter-clockwise, while blockstate rotations go clockwise
+            int rotation = (360 - (int) facing.getHorizontalAngle()) % 360;
+            IBakedModel bakedOverlay = overlayModel.bakeModel(event.getModelLoader(), ModelLoader.defaultTextureGetter(), ModelRotation.getModelRotation(0, rotation), OVERLAY_MODEL);
+            if (bakedOverlay != null) {
+                overlayQuads.put(facing, bakedOverlay.getQuads(null, null, new Random(42), EmptyModelData.INSTANCE));
+            }
+        }
+
+        for (Block block : Arrays.asList(ModBlocks.waystone, ModBlocks.mossyWaystone, ModBlocks.sandyWaystone)) {
+            for (BlockState state : block.getStateContainer().getValidStates()) {
+                if (state.get(WaystoneBlock.HALF) != DoubleBlockHalf.LOWER) {
+                    continue;
+                }
+
+                ModelResourceLocation location = BlockModelShapes.getModelLocation(state);
+                IBakedModel model = event.getModelRegistry().get(location);
+                List<BakedQuad> quads = overlayQuads.get(state.get(WaystoneBlock.FACING));
+                if (model != null && quads != null && !(model instanceof WaystoneBakedModel)) {
+                    event.getModelRegistry().put(location, new WaystoneBakedModel(model, quads));
+                }
+            }
+        }
+    }
+}
@@ -1,11 +1,38 @@
 package net.blay09.mods.waystones.client;
 
+import net.blay09.mods.waystones.block.ModBlocks;
 import net.blay09.mods.waystones.client.render.WaystoneRenderer;
+import net.blay09.mods.waystones.config.WaystonesConfig;
 import net.blay09.mods.waystones.tileentity.ModTileEntities;
+import net.minecraft.block.Block;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.RenderTypeLookup;
 import net.minecraftforge.fml.client.registry.ClientRegistry;
 
+import java.util.Arrays;
+
 public class ModRenderers {
+
+    private static boolean bakedWaystoneOverlay;
+
     public static void registerRenderers() {
-        ClientRegistry.bindTileEntityRenderer(ModTileEntities.waystone, WaystoneRenderer::new);
+        // Without a renderer bound, waystones are not collected as block entities to render at all, so the baked overlay costs nothing per frame
+        bakedWaystoneOverlay = WaystonesConfig.CLIENT.bakedWaystoneOverlay.get();
+        if (!bakedWaystoneOverlay) {
+            ClientRegistry.bindTileEntityRenderer(ModTileEntities.waystone, WaystoneRenderer::new);
+        }
+
+        // The baked overlay goes into the cutout layer, see WaystoneBakedModel
+        for (Block block : Arrays.asList(ModBlocks.waystone, ModBlocks.mossyWaystone, ModBlocks.sandyWaystone)) {
+            RenderTypeLookup.setRenderLayer(block, layer -> layer == RenderType.getSolid() || layer == RenderType.getCutout());
+        }
+    }
+
+    /**
+     * Whether the overlay of activated waystones is part of the baked block model. Decided once at startup, since the tile entity renderer can only
+     * be bound then.
+     */
+    public static boolean isBakedWaystoneOverlay() {
+        return bakedWaystoneOverlay;
     }
 }
@@ -0,0 +1,86 @@
+package net.blay09.mods.waystones.client;
+
+import net.blay09.mods.waystones.config.WaystonesConfig;
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.vector.Vector3d;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Limits the amount of particles spawned by waystone effects. Effects further away from the camera spawn fewer particles, all effects share a
+ * global per-second budget, and teleport effects at the same position are merged.
+ */
+public class ParticleBudget {
+
+    private static final long BUDGET_WINDOW_MS = 1000;
+    private static final long COALESCE_WINDOW_MS = 500;
+
+    private static final Map<Long, Long> recentTeleportEffects = new HashMap<>();
+
+    private static long windowStart;
+    private static int spentInWindow;
+
+    /**
+     * Returns how many of the requested particles may be spawned for an effect at the given position, and takes them from the budget.
+     */
+    public static int allocate(BlockPos pos, int requested) {
+        int count = (int) Math.ceil(requested * getDetailFactor(pos));
+        if (count <= 0) {
+            return 0;
+        }
+
+        int budget = WaystonesConfig.CLIENT.particleBudgetPerSecond.get();
+        if (budget <= 0) {
+            return count;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - windowStart >= BUDGET_WINDOW_MS) {
+            windowStart = now;
+            spentInWindow = 0;
+        }
+
+        count = Math.min(count, budget - spentInWindow);
+        if (count <= 0) {
+            return 0;
+        }
+
+        spentInWindow += count;
+        return count;
+    }
+
+    /**
+     * Returns false if a teleport effect was already played at this position a moment ago, in which case this one should be skipped.
+     */
+    public static boolean tryStartTeleportEffect(BlockPos pos) {
+        long now = System.currentTimeMillis();
+        Long lastPlayed = recentTeleportEffects.get(pos.toLong());
+        if (lastPlayed != null && now - lastPlayed < COALESCE_WINDOW_MS) {
+            return false;
+        }
+
+        if (recentTeleportEffects.size() > 64) {
+            recentTeleportEffects.values().removeIf(it -> now - it >= COALESCE_WINDOW_MS);
+        }
+
+        recentTeleportEffects.put(pos.toLong(), now);
+        return true;
+    }
+
+    private static double getDetailFactor(BlockPos pos) {
+        Vector3d camera = Minecraft.getInstance().gameRenderer.getActiveRenderInfo().getProjectedView();
+        double distance = Math.sqrt(camera.squareDistanceTo(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5));
+        int fullDetailDistance = WaystonesConfig.CLIENT.particleFullDetailDistance.get();
+        int maxDistance = WaystonesConfig.CLIENT.particleMaxDistance.get();
+        if (distance <= fullDetailDistance) {
+            return 1;
+        } else if (distance >= maxDistance) {
+            return 0;
+        }
+
+        return 1 - (distance - fullDetailDistance) / (maxDistance - fullDetailDistance);
+    }
+
+}
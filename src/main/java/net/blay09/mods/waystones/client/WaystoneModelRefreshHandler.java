@@ -0,0 +1,51 @@
+package net.blay09.mods.waystones.client;
+
+import net.blay09.mods.waystones.Waystones;
+import net.blay09.mods.waystones.core.InMemoryPlayerWaystoneData;
+import net.blay09.mods.waystones.core.PlayerWaystoneManager;
+import net.blay09.mods.waystones.tileentity.WaystoneTileEntity;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * The baked overlay is part of the chunk mesh, so waystones whose activation changed need to be re-rendered once the known waystones change.
+ */
+@Mod.EventBusSubscriber(modid = Waystones.MOD_ID, value = Dist.CLIENT)
+public class WaystoneModelRefreshHandler {
+
+    private static int lastModificationCount = -1;
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) {
+            return;
+        }
+
+        ClientWorld world = Minecraft.getInstance().world;
+        PlayerEntity player = Minecraft.getInstance().player;
+        if (world == null || player == null) {
+            return;
+        }
+
+        InMemoryPlayerWaystoneData playerWaystoneData = (InMemoryPlayerWaystoneData) PlayerWaystoneManager.getPlayerWaystoneData(LogicalSide.CLIENT);
+        int modificationCount = playerWaystoneData.getModificationCount();
+        if (modificationCount == lastModificationCount) {
+            return;
+        }
+
+        lastModificationCount = modificationCount;
+        for (TileEntity tileEntity : world.loadedTileEntityList) {
+            if (tileEntity instanceof WaystoneTileEntity) {
+                ((WaystoneTileEntity) tileEntity).onKnownWaystonesChanged(player);
+            }
+        }
+    }
+
+}
@@ -8,8 +8,11 @@ import net.blay09.mods.waystones.client.gui.widget.RemoveWaystoneButton;
 import net.blay09.mods.waystones.client.gui.widget.SortWaystoneButton;
 import net.blay09.mods.waystones.client.gui.widget.WaystoneButton;
 import net.blay09.mods.waystones.container.WaystoneSelectionContainer;
+import net.blay09.mods.waystones.core.InMemoryPlayerWaystoneData;
+import net.blay09.mods.waystones.core.InvalidWaystone;
 import net.blay09.mods.waystones.core.PlayerWaystoneManager;
 import net.blay09.mods.waystones.core.WaystoneEditPermissions;
+import net.blay09.mods.waystones.core.WaystoneTeleportContext;
 import net.blay09.mods.waystones.network.NetworkHandler;
 import net.blay09.mods.waystones.network.message.RemoveWaystoneMessage;
 import net.blay09.mods.waystones.network.message.RequestEditWaystoneMessage;
@@ -19,6 +22,7 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.FontRenderer;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.screen.inventory.ContainerScreen;
+import net.minecraft.client.gui.widget.TextFieldWidget;
 import net.minecraft.client.gui.widget.Widget;
 import net.minecraft.client.gui.widget.button.Button;
 import net.minecraft.client.renderer.texture.AtlasTexture;
@@ -27,27 +31,39 @@ import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.PlayerInventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.TextFormatting;
 import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.LogicalSide;
+import org.lwjgl.glfw.GLFW;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 
 public class WaystoneSelectionScreen extends ContainerScreen<WaystoneSelectionContainer> {
 
     private final List<IWaystone> waystones;
     private final List<ITooltipProvider> tooltipProviders = new ArrayList<>();
-
+    private final List<Row> rows = new ArrayList<>();
+    private final Map<UUID, Integer> xpLevelCosts = new HashMap<>();
+    private final Map<UUID, String> searchKeys = new HashMap<>();
+    private final List<Integer> filteredIndices = new ArrayList<>();
+
+    private WaystoneTeleportContext costContext;
+    private int lastModificationCount;
+    private TextFieldWidget searchField;
+    private Button btnFilter;
+    private Filter filter = Filter.ALL;
     private Button btnPrevPage;
     private Button btnNextPage;
-    private int pageOffset;
+    private int scrollOffset;
     private int headerY;
     private boolean isLocationHeaderHovered;
     private int buttonsPerPage;
 
-    private static final int headerHeight = 40;
+    private static final int headerHeight = 64;
     private static final int footerHeight = 25;
     private static final int entryHeight = 25;
 
@@ -71,19 +87,46 @@ public class WaystoneSelectionScreen extends ContainerScreen<WaystoneSelectionCo
 
         super.init();
 
+        // The player can't move while the screen is open, so neither the leashed animals nor the distances can change
+        costContext = PlayerWaystoneManager.createCostContext(Objects.requireNonNull(Minecraft.getInstance().player), container.getWaystoneFrom());
+        lastModificationCount = getModificationCount();
+
         tooltipProviders.clear();
+        rows.clear();
+        searchField = new TextFieldWidget(Minecraft.getInstance().fontRenderer, width / 2 - 100, guiTop + headerHeight - 24, 145, 16, searchField, new TranslationTextComponent("gui.waystones.waystone_selection.search"));
+        searchField.setResponder(it -> {
+            scrollOffset = 0;
+            updateList();
+        });
+        addButton(searchField);
+
+        btnFilter = new Button(width / 2 + 50, guiTop + headerHeight - 26, 85, 20, filter.getTextComponent(), button -> {
+            filter = filter.next();
+            button.setMessage(filter.getTextComponent());
+            scrollOffset = 0;
+            updateList();
+        });
+        addButton(btnFilter);
+
         btnPrevPage = new Button(width / 2 - 100, height / 2 + 40, 95, 20, new TranslationTextComponent("gui.waystones.waystone_selection.previous_page"), button -> {
-            pageOffset = Screen.hasShiftDown() ? 0 : pageOffset - 1;
+            scrollOffset = Screen.hasShiftDown() ? 0 : scrollOffset - buttonsPerPage;
             updateList();
         });
         addButton(btnPrevPage);
 
         btnNextPage = new Button(width / 2 + 5, height / 2 + 40, 95, 20, new TranslationTextComponent("gui.waystones.waystone_selection.next_page"), button -> {
-            pageOffset = Screen.hasShiftDown() ? (waystones.size() - 1) / buttonsPerPage : pageOffset + 1;
+            scrollOffset = Screen.hasShiftDown() ? Integer.MAX_VALUE : scrollOffset + buttonsPerPage;
             updateList();
         });
         addButton(btnNextPage);
 
+        // The rows are created once and then pointed at whichever waystones are currently scrolled into view
+        int y = guiTop + headerHeight + headerY;
+        for (int i = 0; i < buttonsPerPage; i++) {
+            rows.add(new Row(y));
+            y += 22;
+        }
+
         updateList();
     }
 
@@ -98,61 +141,63 @@ public class WaystoneSelectionScreen extends ContainerScreen<WaystoneSelectionCo
     private void updateList() {
         headerY = 0;
 
-        btnPrevPage.active = pageOffset > 0;
-        btnNextPage.active = pageOffset < (waystones.size() - 1) / buttonsPerPage;
+        updateFilteredIndices();
+        int maxScrollOffset = Math.max(0, filteredIndices.size() - buttonsPerPage);
+        scrollOffset = MathHelper.clamp(scrollOffset, 0, maxScrollOffset);
 
-        tooltipProviders.clear();
-        buttons.removeIf(button -> button instanceof WaystoneButton || button instanceof SortWaystoneButton || button instanceof RemoveWaystoneButton);
-        children.removeIf(button -> button instanceof WaystoneButton || button instanceof SortWaystoneButton || button instanceof RemoveWaystoneButton);
+        btnPrevPage.active = scrollOffset > 0;
+        btnNextPage.active = scrollOffset < maxScrollOffset;
 
-        int y = guiTop + headerHeight + headerY;
-        for (int i = 0; i < buttonsPerPage; i++) {
-            int entryIndex = pageOffset * buttonsPerPage + i;
-            if (entryIndex >= 0 && entryIndex < waystones.size()) {
-                IWaystone waystone = waystones.get(entryIndex);
-
-                addButton(createWaystoneButton(y, waystone));
-
-                SortWaystoneButton sortUpButton = new SortWaystoneButton(width / 2 + 108, y + 2, -1, y, 20, it -> sortWaystone(entryIndex, -1));
-                if (entryIndex == 0) {
-                    sortUpButton.active = false;
-                }
-                addButton(sortUpButton);
-
-                SortWaystoneButton sortDownButton = new SortWaystoneButton(width / 2 + 108, y + 13, 1, y, 20, it -> sortWaystone(entryIndex, 1));
-                if (entryIndex == waystones.size() - 1) {
-                    sortDownButton.active = false;
-                }
-                addButton(sortDownButton);
-
-                RemoveWaystoneButton removeButton = new RemoveWaystoneButton(width / 2 + 122, y + 4, y, 20, waystone, button -> {
-                    PlayerEntity player = Minecraft.getInstance().player;
-                    PlayerWaystoneManager.deactivateWaystone(Objects.requireNonNull(player), waystone);
-                    NetworkHandler.channel.sendToServer(new RemoveWaystoneMessage(waystone));
-                    updateList();
-                });
-                // Only show the remove button for non-global waystones, or if the player is in creative mode
-                if (!waystone.isGlobal() || Minecraft.getInstance().player.abilities.isCreativeMode) {
-                    addButton(removeButton);
-                }
-
-                y += 22;
-            }
+        for (int i = 0; i < rows.size(); i++) {
+            int filteredIndex = scrollOffset + i;
+            rows.get(i).bind(filteredIndex < filteredIndices.size() ? filteredIndices.get(filteredIndex) : -1);
         }
 
         btnPrevPage.y = guiTop + headerY + headerHeight + buttonsPerPage * 22 + (waystones.size() > 0 ? 10 : 0);
         btnNextPage.y = guiTop + headerY + headerHeight + buttonsPerPage * 22 + (waystones.size() > 0 ? 10 : 0);
     }
 
-    private WaystoneButton createWaystoneButton(int y, IWaystone waystone) {
-        IWaystone waystoneFrom = container.getWaystoneFrom();
-        PlayerEntity player = Minecraft.getInstance().player;
-        int xpLevelCost = Math.round(PlayerWaystoneManager.getExperienceLevelCost(Objects.requireNonNull(player), waystone, container.getWarpMode(), waystoneFrom));
-        WaystoneButton btnWaystone = new WaystoneButton(width / 2 - 100, y, waystone, xpLevelCost, button -> NetworkHandler.channel.sendToServer(new SelectWaystoneMessage(waystone)));
-        if (waystoneFrom != null && waystone.getWaystoneUid().equals(waystoneFrom.getWaystoneUid())) {
-            btnWaystone.active = false;
+    private void updateFilteredIndices() {
+        filteredIndices.clear();
+        String query = searchField.getText().trim().toLowerCase(Locale.ROOT);
+        RegistryKey<World> dimension = Objects.requireNonNull(Minecraft.getInstance().player).world.getDimensionKey();
+        for (int i = 0; i < waystones.size(); i++) {
+            IWaystone waystone = waystones.get(i);
+            if (filter == Filter.GLOBAL && !waystone.isGlobal()) {
+                continue;
+            } else if (filter == Filter.CURRENT_DIMENSION && waystone.getDimension() != dimension) {
+                continue;
+            }
+
+            if (query.isEmpty() || getSearchKey(waystone).contains(query)) {
+                filteredIndices.add(i);
+            }
         }
-        return btnWaystone;
+    }
+
+    private boolean isFiltered() {
+        return filter != Filter.ALL || !searchField.getText().trim().isEmpty();
+    }
+
+    /**
+     * The lowercase name and dimension of a waystone, built once per waystone and searched with a simple substring match.
+     */
+    private String getSearchKey(IWaystone waystone) {
+        return searchKeys.computeIfAbsent(waystone.getWaystoneUid(), it -> (waystone.getName() + "\n" + waystone.getDimension().getLocation()).toLowerCase(Locale.ROOT));
+    }
+
+    private int getXpLevelCost(IWaystone waystone) {
+        PlayerEntity player = Minecraft.getInstance().player;
+        return xpLevelCosts.computeIfAbsent(waystone.getWaystoneUid(), it -> PlayerWaystoneManager.getExperienceLevelCost(Objects.requireNonNull(player), waystone, container.getWarpMode(), costContext));
+    }
+
+    private void removeWaystone(IWaystone waystone) {
+        PlayerEntity player = Minecraft.getInstance().player;
+        PlayerWaystoneManager.deactivateWaystone(Objects.requireNonNull(player), waystone);
+        NetworkHandler.channel.sendToServer(new RemoveWaystoneMessage(waystone));
+        searchKeys.remove(waystone.getWaystoneUid());
+        xpLevelCosts.remove(waystone.getWaystoneUid());
+        updateList();
     }
 
     private void sortWaystone(int index, int sortDir) {
@@ -175,6 +220,47 @@ public class WaystoneSelectionScreen extends ContainerScreen<WaystoneSelectionCo
         updateList();
     }
 
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double delta) {
+        if (delta != 0 && !filteredIndices.isEmpty()) {
+            scrollOffset -= (int) Math.signum(delta);
+            updateList();
+            return true;
+        }
+
+        return super.mouseScrolled(mouseX, mouseY, delta);
+    }
+
+    @Override
+    public boolean keyPressed(int keyCode, int scanCode, int modifiers) {
+        // Keep the inventory key from closing the screen while typing a search
+        if (keyCode != GLFW.GLFW_KEY_ESCAPE && (searchField.keyPressed(keyCode, scanCode, modifiers) || searchField.canWrite())) {
+            return true;
+        }
+
+        return super.keyPressed(keyCode, scanCode, modifiers);
+    }
+
+    @Override
+    public void tick() {
+        super.tick();
+        searchField.tick();
+
+        // Waystones may be renamed, made global or removed while the screen is open, so the cached keys and costs are dropped whenever the known
+        // waystones change
+        int modificationCount = getModificationCount();
+        if (modificationCount != lastModificationCount) {
+            lastModificationCount = modificationCount;
+            searchKeys.clear();
+            xpLevelCosts.clear();
+            updateList();
+        }
+    }
+
+    private static int getModificationCount() {
+        return ((InMemoryPlayerWaystoneData) PlayerWaystoneManager.getPlayerWaystoneData(LogicalSide.CLIENT)).getModificationCount();
+    }
+
     @Override
     public boolean mouseClicked(double mouseX, double mouseY, int mouseButton) {
         if (isLocationHeaderHovered && container.getWaystoneFrom() != null) {
@@ -212,7 +298,7 @@ public class WaystoneSelectionScreen extends ContainerScreen<WaystoneSelectionCo
             drawLocationHeader(matrixStack, fromWaystone, mouseX, mouseY, xSize / 2, headerY);
         }
 
-        if (waystones.size() == 0) {
+        if (waystones.isEmpty()) {
             drawCenteredString(matrixStack, fontRenderer, TextFormatting.RED + I18n.format("gui.waystones.waystone_selection.no_waystones_activated"), xSize / 2, height / 2 - 20, 0xFFFFFF);
         }
     }
@@ -254,4 +340,62 @@ public class WaystoneSelectionScreen extends ContainerScreen<WaystoneSelectionCo
         }
     }
 
+    private class Row {
+        private final WaystoneButton waystoneButton;
+        private final SortWaystoneButton sortUpButton;
+        private final SortWaystoneButton sortDownButton;
+        private final RemoveWaystoneButton removeButton;
+        private IWaystone waystone = InvalidWaystone.INSTANCE;
+        private int entryIndex = -1;
+
+        private Row(int y) {
+            waystoneButton = addButton(new WaystoneButton(width / 2 - 100, y, waystone, 0, button -> NetworkHandler.channel.sendToServer(new SelectWaystoneMessage(waystone))));
+            sortUpButton = addButton(new SortWaystoneButton(width / 2 + 108, y + 2, -1, y, 20, it -> sortWaystone(entryIndex, -1)));
+            sortDownButton = addButton(new SortWaystoneButton(width / 2 + 108, y + 13, 1, y, 20, it -> sortWaystone(entryIndex, 1)));
+            removeButton = addButton(new RemoveWaystoneButton(width / 2 + 122, y + 4, y, 20, waystone, button -> removeWaystone(waystone)));
+        }
+
+        private void bind(int entryIndex) {
+            this.entryIndex = entryIndex;
+            boolean hasEntry = entryIndex >= 0;
+            waystoneButton.visible = hasEntry;
+            removeButton.visible = hasEntry;
+            // Sorting moves waystones in the full list, which would be confusing while only part of it is shown
+            sortUpButton.visible = hasEntry && !isFiltered();
+            sortDownButton.visible = hasEntry && !isFiltered();
+            if (!hasEntry) {
+                waystone = InvalidWaystone.INSTANCE;
+                return;
+            }
+
+            waystone = waystones.get(entryIndex);
+            waystoneButton.setWaystone(waystone, getXpLevelCost(waystone));
+            IWaystone waystoneFrom = container.getWaystoneFrom();
+            if (waystoneFrom != null && waystone.getWaystoneUid().equals(waystoneFrom.getWaystoneUid())) {
+                waystoneButton.active = false;
+            }
+
+            sortUpButton.active = entryIndex > 0;
+            sortDownButton.active = entryIndex < waystones.size() - 1;
+
+            removeButton.setWaystone(waystone);
+            // Only show the remove button for non-global waystones, or if the player is in creative mode
+            removeButton.visible = !waystone.isGlobal() || Objects.requireNonNull(Minecraft.getInstance().player).abilities.isCreativeMode;
+        }
+    }
+
+    private enum Filter {
+        ALL,
+        GLOBAL,
+        CURRENT_DIMENSION;
+
+        private Filter next() {
+            return values()[(ordinal() + 1) % values().length];
+        }
+
+        private ITextComponent getTextComponent() {
+            return new TranslationTextComponent("gui.waystones.waystone_selection.filter." + name().toLowerCase(Locale.ROOT));
+        }
+    }
+
 }
@@ -17,8 +17,8 @@ public class RemoveWaystoneButton extends Button implements ITooltipProvider {
 
     private static final ResourceLocation BEACON = new ResourceLocation("textures/gui/container/beacon.png");
 
-    private final List<ITextComponent> tooltip;
-    private final List<ITextComponent> activeTooltip;
+    private List<ITextComponent> tooltip;
+    private List<ITextComponent> activeTooltip;
     private final int visibleRegionStart;
     private final int visibleRegionHeight;
     private static boolean shiftGuard;
@@ -27,6 +27,10 @@ public class RemoveWaystoneButton extends Button implements ITooltipProvider {
         super(x, y, 13, 13, new StringTextComponent(""), pressable);
         this.visibleRegionStart = visibleRegionStart;
         this.visibleRegionHeight = visibleRegionHeight;
+        setWaystone(waystone);
+    }
+
+    public void setWaystone(IWaystone waystone) {
         tooltip = Lists.newArrayList(new TranslationTextComponent("gui.waystones.waystone_selection.hold_shift_to_delete"));
         activeTooltip = Lists.newArrayList(new TranslationTextComponent("gui.waystones.waystone_selection.click_to_delete"));
         if (waystone.isGlobal()) {
@@ -70,7 +74,7 @@ public class RemoveWaystoneButton extends Button implements ITooltipProvider {
 
     @Override
     public boolean shouldShowTooltip() {
-        return isHovered;
+        return visible && isHovered;
     }
 
     @Override
@@ -20,12 +20,21 @@ public class WaystoneButton extends Button {
 
     private static final ResourceLocation ENCHANTMENT_TABLE_GUI_TEXTURE = new ResourceLocation("textures/gui/container/enchanting_table.png");
 
-    private final int xpLevelCost;
+    private int xpLevelCost;
 
     public WaystoneButton(int x, int y, IWaystone waystone, int xpLevelCost, IPressable pressable) {
         super(x, y, 200, 20, getWaystoneNameComponent(waystone), pressable);
+        setWaystone(waystone, xpLevelCost);
+    }
+
+    /**
+     * Points this button at a different waystone, so that buttons can be reused while scrolling through a list.
+     */
+    public void setWaystone(IWaystone waystone, int xpLevelCost) {
         PlayerEntity player = Minecraft.getInstance().player;
         this.xpLevelCost = xpLevelCost;
+        setMessage(getWaystoneNameComponent(waystone));
+        active = true;
         if (player == null || !PlayerWaystoneManager.mayTeleportToWaystone(player, waystone)) {
             active = false;
         } else if (player.experienceLevel < xpLevelCost && !player.abilities.isCreativeMode) {
@@ -0,0 +1,71 @@
+package net.blay09.mods.waystones.client.render;
+
+import net.blay09.mods.waystones.client.ModRenderers;
+import net.blay09.mods.waystones.config.WaystonesConfig;
+import net.blay09.mods.waystones.tileentity.WaystoneTileEntity;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.model.BakedQuad;
+import net.minecraft.client.renderer.model.IBakedModel;
+import net.minecraft.util.Direction;
+import net.minecraftforge.client.MinecraftForgeClient;
+import net.minecraftforge.client.model.BakedModelWrapper;
+import net.minecraftforge.client.model.data.IModelData;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bakes the rune overlay of activated waystones into the chunk mesh, so that static waystones do not need to be rendered every frame. The base
+ * model is rendered in the solid layer and the overlay in the cutout layer.
+ */
+public class WaystoneBakedModel extends BakedModelWrapper<IBakedModel> {
+
+    private static final int VERTEX_SIZE = 8;
+    private static final int LIGHTMAP_OFFSET = 6;
+    private static final int FULL_BRIGHT = 0xF000F0;
+
+    private final List<BakedQuad> overlayQuads;
+    private final List<BakedQuad> glowingOverlayQuads;
+
+    public WaystoneBakedModel(IBakedModel originalModel, List<BakedQuad> overlayQuads) {
+        super(originalModel);
+        this.overlayQuads = overlayQuads;
+        this.glowingOverlayQuads = new ArrayList<>(overlayQuads.size());
+        for (BakedQuad quad : overlayQuads) {
+            glowingOverlayQuads.add(makeFullBright(quad));
+        }
+    }
+
+    @Nonnull
+    @Override
+    public List<BakedQuad> getQuads(@Nullable BlockState state, @Nullable Direction side, @Nonnull Random rand, @Nonnull IModelData extraData) {
+        RenderType layer = MinecraftForgeClient.getRenderLayer();
+        if (layer == null || layer == RenderType.getSolid()) {
+            return originalModel.getQuads(state, side, rand, extraData);
+        }
+
+        if (layer == RenderType.getCutout() && side == null && isOverlayVisible(extraData)) {
+            return WaystonesConfig.CLIENT.disableTextGlow.get() ? overlayQuads : glowingOverlayQuads;
+        }
+
+        return Collections.emptyList();
+    }
+
+    private static boolean isOverlayVisible(IModelData extraData) {
+        return ModRenderers.isBakedWaystoneOverlay() && Boolean.TRUE.equals(extraData.getData(WaystoneTileEntity.ACTIVATED));
+    }
+
+    private static BakedQuad makeFullBright(BakedQuad quad) {
+        // Forge's lighting uses the brighter one of the baked and the world light, so a full bright lightmap here makes the overlay glow
+        int[] vertexData = quad.getVertexData().clone();
+        for (int i = 0; i < vertexData.length / VERTEX_SIZE; i++) {
+            vertexData[i * VERTEX_SIZE + LIGHTMAP_OFFSET] = FULL_BRIGHT;
+        }
+        return new BakedQuad(vertexData, quad.getTintIndex(), quad.getFace(), quad.getSprite(), false);
+    }
+}
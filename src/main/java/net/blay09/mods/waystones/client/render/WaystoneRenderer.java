@@ -5,7 +5,6 @@ import com.mojang.blaze3d.vertex.IVertexBuilder;
 import net.blay09.mods.waystones.Waystones;
 import net.blay09.mods.waystones.block.WaystoneBlock;
 import net.blay09.mods.waystones.config.WaystonesConfig;
-import net.blay09.mods.waystones.core.PlayerWaystoneManager;
 import net.blay09.mods.waystones.tileentity.WaystoneTileEntity;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.Minecraft;
@@ -17,6 +16,7 @@ import net.minecraft.client.renderer.texture.OverlayTexture;
 import net.minecraft.client.renderer.tileentity.TileEntityRenderer;
 import net.minecraft.client.renderer.tileentity.TileEntityRendererDispatcher;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.profiler.IProfiler;
 import net.minecraft.state.properties.DoubleBlockHalf;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.vector.Quaternion;
@@ -39,21 +39,26 @@ public class WaystoneRenderer extends TileEntityRenderer<WaystoneTileEntity> {
             return;
         }
 
+        PlayerEntity player = Minecraft.getInstance().player;
+        if (!tileEntity.isActivatedForClient(Objects.requireNonNull(player))) {
+            return;
+        }
+
+        // Shows up as its own section in the debug profiler, to tell the cost of waystones apart from other block entities
+        IProfiler profiler = Minecraft.getInstance().getProfiler();
+        profiler.startSection("waystones");
         float angle = state.get(WaystoneBlock.FACING).getHorizontalAngle();
         matrixStack.push();
         matrixStack.translate(0.5f, 0f, 0.5f);
         matrixStack.rotate(new Quaternion(0f, angle, 0f, true));
         matrixStack.rotate(new Quaternion(-180f, 0f, 0f, true));
         matrixStack.scale(0.5f, 0.5f, 0.5f);
-        PlayerEntity player = Minecraft.getInstance().player;
-        boolean isActivated = PlayerWaystoneManager.isWaystoneActivated(Objects.requireNonNull(player), tileEntity.getWaystone());
-        if (isActivated) {
-            matrixStack.scale(1.05f, 1.05f, 1.05f);
-            IVertexBuilder vertexBuilder = MATERIAL.getBuffer(buffer, RenderType::getEntityCutout);
-            int light = WaystonesConfig.CLIENT.disableTextGlow.get() ? combinedLightIn : 15728880;
-            int overlay = WaystonesConfig.CLIENT.disableTextGlow.get() ? combinedOverlayIn : OverlayTexture.NO_OVERLAY;
-            model.render(matrixStack, vertexBuilder, light, overlay, 1f, 1f, 1f, 1f);
-        }
+        matrixStack.scale(1.05f, 1.05f, 1.05f);
+        IVertexBuilder vertexBuilder = MATERIAL.getBuffer(buffer, RenderType::getEntityCutout);
+        int light = WaystonesConfig.CLIENT.disableTextGlow.get() ? combinedLightIn : 15728880;
+        int overlay = WaystonesConfig.CLIENT.disableTextGlow.get() ? combinedOverlayIn : OverlayTexture.NO_OVERLAY;
+        model.render(matrixStack, vertexBuilder, light, overlay, 1f, 1f, 1f, 1f);
         matrixStack.pop();
+        profiler.endSection();
     }
 }
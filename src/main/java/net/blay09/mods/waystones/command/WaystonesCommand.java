@@ -0,0 +1,86 @@
+package net.blay09.mods.waystones.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import net.blay09.mods.waystones.api.IWaystone;
+import net.blay09.mods.waystones.config.WaystonesConfig;
+import net.blay09.mods.waystones.core.WaystoneManager;
+import net.blay09.mods.waystones.core.WaystoneSyncManager;
+import net.blay09.mods.waystones.worldgen.WaystonePlacement;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraft.world.server.ServerWorld;
+
+import java.util.Comparator;
+import java.util.List;
+
+public class WaystonesCommand {
+
+    private static final int DEFAULT_CHUNK_RADIUS = 64;
+    private static final int MAX_CHUNK_RADIUS = 2048;
+    private static final int MAX_LISTED = 20;
+
+    public static void register(CommandDispatcher<CommandSource> dispatcher) {
+        dispatcher.register(Commands.literal("waystones")
+                .requires(source -> source.hasPermissionLevel(2))
+                .then(Commands.literal("planned")
+                        .executes(context -> listPlanned(context.getSource(), DEFAULT_CHUNK_RADIUS))
+                        .then(Commands.argument("chunkRadius", IntegerArgumentType.integer(1, MAX_CHUNK_RADIUS))
+                                .executes(context -> listPlanned(context.getSource(), IntegerArgumentType.getInteger(context, "chunkRadius")))))
+                .then(Commands.literal("stats")
+                        .executes(context -> showStats(context.getSource()))));
+    }
+
+    private static int showStats(CommandSource source) {
+        long avoidedPackets = WaystoneSyncManager.getAvoidedPacketCount();
+        source.sendFeedback(new TranslationTextComponent("commands.waystones.stats.avoided_packets", avoidedPackets), false);
+        return (int) Math.min(avoidedPackets, Integer.MAX_VALUE);
+    }
+
+    private static int listPlanned(CommandSource source, int chunkRadius) {
+        if (WaystonesConfig.getSnapshot().legacyWorldGenPlacement && chunkRadius > WaystonePlacement.MAX_LEGACY_PLANNED_CHUNK_RADIUS) {
+            source.sendErrorMessage(new TranslationTextComponent("commands.waystones.planned.legacy_radius_too_large", WaystonePlacement.MAX_LEGACY_PLANNED_CHUNK_RADIUS));
+            return 0;
+        }
+
+        ServerWorld world = source.getWorld();
+        BlockPos origin = new BlockPos(source.getPos());
+        ChunkPos center = new ChunkPos(origin);
+        List<ChunkPos> plannedChunks = WaystonePlacement.getPlannedChunks(world.getSeed(), world.getDimensionKey().getLocation(), center, chunkRadius);
+        if (plannedChunks.isEmpty()) {
+            source.sendFeedback(new TranslationTextComponent("commands.waystones.planned.none", chunkRadius), false);
+            return 0;
+        }
+
+        plannedChunks.sort(Comparator.comparingInt(it -> (it.x - center.x) * (it.x - center.x) + (it.z - center.z) * (it.z - center.z)));
+        source.sendFeedback(new TranslationTextComponent("commands.waystones.planned.header", plannedChunks.size(), chunkRadius), false);
+        for (ChunkPos chunkPos : plannedChunks.subList(0, Math.min(plannedChunks.size(), MAX_LISTED))) {
+            BlockPos pos = new BlockPos(chunkPos.getXStart() + 8, origin.getY(), chunkPos.getZStart() + 8);
+            TranslationTextComponent entry = new TranslationTextComponent("commands.waystones.planned.entry", pos.getX(), pos.getZ(), (int) Math.sqrt(pos.distanceSq(origin)));
+            if (hasWaystoneInChunk(world, chunkPos)) {
+                entry.appendString(" ").append(new TranslationTextComponent("commands.waystones.planned.generated").mergeStyle(TextFormatting.GREEN));
+            }
+            source.sendFeedback(entry, false);
+        }
+
+        return plannedChunks.size();
+    }
+
+    private static boolean hasWaystoneInChunk(ServerWorld world, ChunkPos chunkPos) {
+        // The radius is spherical, so it has to reach from the middle of the world height to the corners of the chunk
+        BlockPos chunkCenter = new BlockPos(chunkPos.getXStart() + 8, world.getHeight() / 2, chunkPos.getZStart() + 8);
+        List<IWaystone> waystones = WaystoneManager.get().getWaystonesInRadius(world.getDimensionKey(), chunkCenter, world.getHeight() / 2 + 12);
+        for (IWaystone waystone : waystones) {
+            if (new ChunkPos(waystone.getPos()).equals(chunkPos)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -10,6 +10,10 @@ public class WaystoneClientConfig {
     public final ForgeConfigSpec.ConfigValue<Integer> creativeTeleportButtonY;
     public final ForgeConfigSpec.BooleanValue disableParticles;
     public final ForgeConfigSpec.BooleanValue disableTextGlow;
+    public final ForgeConfigSpec.BooleanValue bakedWaystoneOverlay;
+    public final ForgeConfigSpec.IntValue particleBudgetPerSecond;
+    public final ForgeConfigSpec.IntValue particleFullDetailDistance;
+    public final ForgeConfigSpec.IntValue particleMaxDistance;
     public final ForgeConfigSpec.BooleanValue displayWaystonesOnJourneyMap;
     public final ForgeConfigSpec.DoubleValue soundVolume;
 
@@ -46,6 +50,26 @@ public class WaystoneClientConfig {
                 .translation("config.waystones.disableTextGlow")
                 .define("disableTextGlow", false);
 
+        bakedWaystoneOverlay = builder
+                .comment("If enabled, the text overlay on activated waystones is baked into the world mesh instead of being rendered every frame. Disable this if the overlay does not show correctly with shader packs. Requires a restart.")
+                .translation("config.waystones.bakedWaystoneOverlay")
+                .define("bakedWaystoneOverlay", true);
+
+        particleBudgetPerSecond = builder
+                .comment("The maximum amount of waystone particles spawned per second. Effects beyond this are skipped. Set to 0 for no limit.")
+                .translation("config.waystones.particleBudgetPerSecond")
+                .defineInRange("particleBudgetPerSecond", 2000, 0, Integer.MAX_VALUE);
+
+        particleFullDetailDistance = builder
+                .comment("Waystone effects within this distance in blocks spawn all of their particles. Further away, the amount is reduced gradually.")
+                .translation("config.waystones.particleFullDetailDistance")
+                .defineInRange("particleFullDetailDistance", 16, 0, 256);
+
+        particleMaxDistance = builder
+                .comment("Waystone effects beyond this distance in blocks do not spawn any particles.")
+                .translation("config.waystones.particleMaxDistance")
+                .defineInRange("particleMaxDistance", 64, 0, 256);
+
         soundVolume = builder
                 .comment("The volume of the sound played when teleporting.")
                 .translation("config.waystones.soundVolume")
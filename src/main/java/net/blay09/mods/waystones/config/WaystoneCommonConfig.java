@@ -10,12 +10,15 @@ public class WaystoneCommonConfig {
     public final ForgeConfigSpec.BooleanValue addVillageStructure;
     public final ForgeConfigSpec.BooleanValue allowWaystoneToWaystoneTeleport;
     public final ForgeConfigSpec.IntValue worldGenFrequency;
+    public final ForgeConfigSpec.BooleanValue legacyWorldGenPlacement;
     public final ForgeConfigSpec.EnumValue<WorldGenStyle> worldGenStyle;
     public final ForgeConfigSpec.ConfigValue<List<? extends String>> worldGenDimensionAllowList;
     public final ForgeConfigSpec.ConfigValue<List<? extends String>> worldGenDimensionDenyList;
     public final ForgeConfigSpec.ConfigValue<List<? extends String>> dimensionalWarpAllowList;
     public final ForgeConfigSpec.ConfigValue<List<? extends String>> dimensionalWarpDenyList;
     public final ForgeConfigSpec.ConfigValue<List<? extends String>> customWaystoneNames;
+    public final ForgeConfigSpec.BooleanValue binaryStorage;
+    public final ForgeConfigSpec.IntValue changeLogCompactionThreshold;
 
     WaystoneCommonConfig(ForgeConfigSpec.Builder builder) {
         builder.push("common");
@@ -37,6 +40,11 @@ public class WaystoneCommonConfig {
                 .translation("config.waystones.worldGenFrequency")
                 .defineInRange("worldGenFrequency", 30, 0, Integer.MAX_VALUE);
 
+        legacyWorldGenPlacement = builder
+                .comment("Set to true to pick waystone chunks with the Random based selection used before region based placement, so that newly generated chunks of existing worlds keep the same waystone positions as before. The current placement guarantees one waystone per region of worldGenFrequency x worldGenFrequency chunks and is faster.")
+                .translation("config.waystones.legacyWorldGenPlacement")
+                .define("legacyWorldGenPlacement", false);
+
         worldGenStyle = builder
                 .comment("Set to 'DEFAULT' to only generate the normally textured waystones. Set to 'MOSSY' or 'SANDY' to generate all as that variant. Set to 'BIOME' to make the style depend on the biome it is generated in.")
                 .translation("config.waystones.worldGenStyle")
@@ -66,5 +74,17 @@ public class WaystoneCommonConfig {
                 .comment("The Name Generator will pick from these names until they have all been used, then it will generate random ones again.")
                 .translation("config.waystones.customWaystoneNames")
                 .defineList("customWaystoneNames", ArrayList::new, it -> it instanceof String);
+
+        builder.pop().comment("These options define how waystone data is stored.").push("storage");
+
+        binaryStorage = builder
+                .comment("If enabled, the waystone registry is saved to a compact binary file (data/waystones.bin) instead of the world's NBT data. Existing waystones are migrated automatically in both directions.")
+                .translation("config.waystones.binaryStorage")
+                .define("binaryStorage", false);
+
+        changeLogCompactionThreshold = builder
+                .comment("With binary storage enabled, changed waystones are appended to a change log instead of rewriting the entire file. Once the change log holds this many entries, it is compacted into a new snapshot. The change log is also compacted when the server shuts down.")
+                .translation("config.waystones.changeLogCompactionThreshold")
+                .defineInRange("changeLogCompactionThreshold", 1000, 0, Integer.MAX_VALUE);
     }
 }
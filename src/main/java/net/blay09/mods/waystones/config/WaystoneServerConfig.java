@@ -30,6 +30,10 @@ public class WaystoneServerConfig {
     public final ForgeConfigSpec.EnumValue<DimensionalWarp> dimensionalWarp;
     public final ForgeConfigSpec.IntValue dimensionalWarpXpCost;
 
+    public final ForgeConfigSpec.BooleanValue deferChunkLoading;
+    public final ForgeConfigSpec.IntValue chunkLoadTimeout;
+    public final ForgeConfigSpec.BooleanValue preloadChunksWhileCharging;
+
     public final ForgeConfigSpec.BooleanValue restrictToCreative;
     public final ForgeConfigSpec.BooleanValue restrictRenameToOwner;
     public final ForgeConfigSpec.BooleanValue generatedWaystonesUnbreakable;
@@ -141,6 +145,23 @@ public class WaystoneServerConfig {
                 .translation("config.waystones.dimensionalWarpXpCost")
                 .defineInRange("dimensionalWarpXpCost", 3, 0, Integer.MAX_VALUE);
 
+        builder.pop().comment("These options apply to how teleports to waystones in unloaded chunks are handled.").push("teleport");
+
+        deferChunkLoading = builder
+                .comment("If enabled, teleports to waystones in unloaded chunks wait for the chunk to be loaded in the background instead of loading it immediately.")
+                .translation("config.waystones.deferChunkLoading")
+                .define("deferChunkLoading", true);
+
+        chunkLoadTimeout = builder
+                .comment("The time in ticks a teleport waits for the target chunk to load before it is cancelled.")
+                .translation("config.waystones.chunkLoadTimeout")
+                .defineInRange("chunkLoadTimeout", 100, 1, Integer.MAX_VALUE);
+
+        preloadChunksWhileCharging = builder
+                .comment("If enabled, the destination chunk of bound and return scrolls is loaded while the scroll is being charged.")
+                .translation("config.waystones.preloadChunksWhileCharging")
+                .define("preloadChunksWhileCharging", true);
+
         builder.pop().comment("These options apply to taking leashed mobs with you when teleporting.").push("leashedMobs");
 
         transportLeashed = builder
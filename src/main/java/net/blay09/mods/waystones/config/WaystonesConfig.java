@@ -57,12 +57,54 @@ public class WaystonesConfig {
         CLIENT = specPair.getLeft();
     }
 
+    private static volatile WaystonesConfigSnapshot snapshot;
+    private static volatile boolean commonConfigLoaded;
+    private static volatile boolean serverConfigLoaded;
+
+    /**
+     * Returns the current config values for use on hot paths. The snapshot is rebuilt lazily after the config was (re)loaded or synced, and is only
+     * kept once both the common and the server config have been loaded.
+     */
+    public static WaystonesConfigSnapshot getSnapshot() {
+        WaystonesConfigSnapshot current = snapshot;
+        if (current == null) {
+            current = new WaystonesConfigSnapshot(SERVER, COMMON);
+            if (commonConfigLoaded && serverConfigLoaded) {
+                snapshot = current;
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Marks the given spec as loaded, for config data that is set outside of Forge's config loading, such as the server config synced to clients.
+     */
+    public static void onSpecLoaded(ForgeConfigSpec spec) {
+        if (spec == commonSpec) {
+            commonConfigLoaded = true;
+        } else if (spec == serverSpec) {
+            serverConfigLoaded = true;
+        }
+        invalidateSnapshot();
+    }
+
+    public static void invalidateSnapshot() {
+        snapshot = null;
+    }
+
     public static InventoryButtonMode getInventoryButtonMode() {
         return new InventoryButtonMode(SERVER.inventoryButton.get());
     }
 
+    @SubscribeEvent
+    public static void onConfigLoaded(ModConfig.Loading event) {
+        onSpecLoaded(event.getConfig().getSpec());
+    }
+
     @SubscribeEvent
     public static void onConfigReloaded(ModConfig.Reloading event) {
+        invalidateSnapshot();
         if (event.getConfig().getType() == ModConfig.Type.SERVER) {
             final MinecraftServer currentServer = ServerLifecycleHooks.getCurrentServer();
             if (currentServer != null) {
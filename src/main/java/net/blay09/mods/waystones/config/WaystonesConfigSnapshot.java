@@ -0,0 +1,102 @@
+package net.blay09.mods.waystones.config;
+
+import com.google.common.collect.ImmutableSet;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.world.World;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable copy of the config values read on hot paths, with lists already parsed. Obtained through {@link WaystonesConfig#getSnapshot()}.
+ */
+public class WaystonesConfigSnapshot {
+    public final boolean inverseXpCost;
+    public final int blocksPerXPLevel;
+    public final double minimumXpCost;
+    public final double maximumXpCost;
+
+    public final double waystoneXpCostMultiplier;
+    public final double inventoryButtonXpCostMultiplier;
+    public final double warpStoneXpCostMultiplier;
+    public final double globalWaystoneXpCostMultiplier;
+
+    public final int inventoryButtonCooldown;
+    public final int warpStoneCooldown;
+    public final double globalWaystoneCooldownMultiplier;
+
+    public final DimensionalWarp dimensionalWarp;
+    public final int dimensionalWarpXpCost;
+    public final Set<RegistryKey<World>> dimensionalWarpAllowList;
+    public final Set<RegistryKey<World>> dimensionalWarpDenyList;
+
+    public final boolean transportLeashed;
+    public final boolean transportLeashedDimensional;
+    public final int costPerLeashed;
+    public final Set<ResourceLocation> leashedBlacklist;
+
+    public final boolean deferChunkLoading;
+    public final int chunkLoadTimeout;
+    public final boolean preloadChunksWhileCharging;
+
+    public final int worldGenFrequency;
+    public final boolean legacyWorldGenPlacement;
+    public final Set<ResourceLocation> worldGenDimensionAllowList;
+    public final Set<ResourceLocation> worldGenDimensionDenyList;
+
+    WaystonesConfigSnapshot(WaystoneServerConfig server, WaystoneCommonConfig common) {
+        inverseXpCost = server.inverseXpCost.get();
+        blocksPerXPLevel = server.blocksPerXPLevel.get();
+        minimumXpCost = server.minimumXpCost.get();
+        maximumXpCost = server.maximumXpCost.get();
+
+        waystoneXpCostMultiplier = server.waystoneXpCostMultiplier.get();
+        inventoryButtonXpCostMultiplier = server.inventoryButtonXpCostMultiplier.get();
+        warpStoneXpCostMultiplier = server.warpStoneXpCostMultiplier.get();
+        globalWaystoneXpCostMultiplier = server.globalWaystoneXpCostMultiplier.get();
+
+        inventoryButtonCooldown = server.inventoryButtonCooldown.get();
+        warpStoneCooldown = server.warpStoneCooldown.get();
+        globalWaystoneCooldownMultiplier = server.globalWaystoneCooldownMultiplier.get();
+
+        dimensionalWarp = server.dimensionalWarp.get();
+        dimensionalWarpXpCost = server.dimensionalWarpXpCost.get();
+        dimensionalWarpAllowList = toDimensionKeys(common.dimensionalWarpAllowList.get());
+        dimensionalWarpDenyList = toDimensionKeys(common.dimensionalWarpDenyList.get());
+
+        transportLeashed = server.transportLeashed.get();
+        transportLeashedDimensional = server.transportLeashedDimensional.get();
+        costPerLeashed = server.costPerLeashed.get();
+        leashedBlacklist = toResourceLocations(server.leashedBlacklist.get());
+
+        deferChunkLoading = server.deferChunkLoading.get();
+        chunkLoadTimeout = server.chunkLoadTimeout.get();
+        preloadChunksWhileCharging = server.preloadChunksWhileCharging.get();
+
+        worldGenFrequency = common.worldGenFrequency.get();
+        legacyWorldGenPlacement = common.legacyWorldGenPlacement.get();
+        worldGenDimensionAllowList = toResourceLocations(common.worldGenDimensionAllowList.get());
+        worldGenDimensionDenyList = toResourceLocations(common.worldGenDimensionDenyList.get());
+    }
+
+    private static Set<ResourceLocation> toResourceLocations(List<? extends String> list) {
+        ImmutableSet.Builder<ResourceLocation> builder = ImmutableSet.builder();
+        for (String entry : list) {
+            ResourceLocation location = ResourceLocation.tryCreate(entry);
+            if (location != null) {
+                builder.add(location);
+            }
+        }
+        return builder.build();
+    }
+
+    private static Set<RegistryKey<World>> toDimensionKeys(List<? extends String> list) {
+        ImmutableSet.Builder<RegistryKey<World>> builder = ImmutableSet.builder();
+        for (ResourceLocation location : toResourceLocations(list)) {
+            builder.add(RegistryKey.getOrCreateKey(Registry.WORLD_KEY, location));
+        }
+        return builder.build();
+    }
+}
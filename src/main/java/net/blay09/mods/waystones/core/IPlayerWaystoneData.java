@@ -10,6 +10,11 @@ import java.util.List;
 
 public interface IPlayerWaystoneData {
     void activateWaystone(PlayerEntity player, IWaystone waystone);
+    default void activateWaystones(PlayerEntity player, Collection<IWaystone> waystones) {
+        for (IWaystone waystone : waystones) {
+            activateWaystone(player, waystone);
+        }
+    }
     boolean isWaystoneActivated(PlayerEntity player, IWaystone waystone);
     void deactivateWaystone(PlayerEntity player, IWaystone waystone);
     long getWarpStoneCooldownUntil(PlayerEntity player);
@@ -10,11 +10,15 @@ public class InMemoryPlayerWaystoneData implements IPlayerWaystoneData {
     private final Map<UUID, IWaystone> waystones = new HashMap<>();
     private long warpStoneCooldownUntil;
     private long inventoryButtonCooldownUntil;
+    private int revision;
+    private boolean awaitingResync;
+    private int modificationCount;
 
     @Override
     public void activateWaystone(PlayerEntity player, IWaystone waystone) {
         waystones.put(waystone.getWaystoneUid(), waystone);
         sortedWaystones.add(0, waystone);
+        modificationCount++;
     }
 
     @Override
@@ -24,8 +28,7 @@ public class InMemoryPlayerWaystoneData implements IPlayerWaystoneData {
 
     @Override
     public void deactivateWaystone(PlayerEntity player, IWaystone waystone) {
-        waystones.remove(waystone.getWaystoneUid());
-        sortedWaystones.remove(waystone);
+        removeWaystone(waystone.getWaystoneUid());
     }
 
     @Override
@@ -53,6 +56,10 @@ public class InMemoryPlayerWaystoneData implements IPlayerWaystoneData {
         return sortedWaystones;
     }
 
+    public List<IWaystone> getWaystones() {
+        return sortedWaystones;
+    }
+
     @Override
     public void swapWaystoneSorting(PlayerEntity player, int index, int otherIndex) {
         if (otherIndex == -1) {
@@ -66,6 +73,73 @@ public class InMemoryPlayerWaystoneData implements IPlayerWaystoneData {
         }
     }
 
+    public int getRevision() {
+        return revision;
+    }
+
+    public void setRevision(int revision) {
+        this.revision = revision;
+    }
+
+    public boolean isAwaitingResync() {
+        return awaitingResync;
+    }
+
+    public void setAwaitingResync(boolean awaitingResync) {
+        this.awaitingResync = awaitingResync;
+    }
+
+    public void addWaystone(IWaystone waystone) {
+        if (!updateWaystone(waystone)) {
+            waystones.put(waystone.getWaystoneUid(), waystone);
+            sortedWaystones.add(0, waystone);
+            modificationCount++;
+        }
+    }
+
+    public boolean updateWaystone(IWaystone waystone) {
+        if (!waystones.containsKey(waystone.getWaystoneUid())) {
+            return false;
+        }
+
+        waystones.put(waystone.getWaystoneUid(), waystone);
+        for (int i = 0; i < sortedWaystones.size(); i++) {
+            if (sortedWaystones.get(i).getWaystoneUid().equals(waystone.getWaystoneUid())) {
+                sortedWaystones.set(i, waystone);
+                break;
+            }
+        }
+        modificationCount++;
+        return true;
+    }
+
+    public void removeWaystone(UUID waystoneUid) {
+        if (waystones.remove(waystoneUid) != null) {
+            sortedWaystones.removeIf(it -> it.getWaystoneUid().equals(waystoneUid));
+            modificationCount++;
+        }
+    }
+
+    public boolean reorderWaystones(List<UUID> order) {
+        if (order.size() != sortedWaystones.size()) {
+            return false;
+        }
+
+        List<IWaystone> reordered = new ArrayList<>(order.size());
+        for (UUID waystoneUid : order) {
+            IWaystone waystone = waystones.get(waystoneUid);
+            if (waystone == null) {
+                return false;
+            }
+            reordered.add(waystone);
+        }
+
+        sortedWaystones.clear();
+        sortedWaystones.addAll(reordered);
+        modificationCount++;
+        return true;
+    }
+
     public void setWaystones(List<IWaystone> waystones) {
         this.sortedWaystones.clear();
         this.waystones.clear();
@@ -73,5 +147,13 @@ public class InMemoryPlayerWaystoneData implements IPlayerWaystoneData {
         for (IWaystone waystone : waystones) {
             this.waystones.put(waystone.getWaystoneUid(), waystone);
         }
+        modificationCount++;
+    }
+
+    /**
+     * Changes whenever the known waystones are added, removed, updated or reordered, so that anything derived from them can be cached until then.
+     */
+    public int getModificationCount() {
+        return modificationCount;
     }
 }
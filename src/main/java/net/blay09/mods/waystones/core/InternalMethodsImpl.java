@@ -0,0 +1,20 @@
+package net.blay09.mods.waystones.core;
+
+import net.blay09.mods.waystones.api.IWaystone;
+import net.blay09.mods.waystones.api.WaystonesAPI;
+
+import java.util.List;
+import java.util.Optional;
+
+public class InternalMethodsImpl implements WaystonesAPI.InternalMethods {
+
+    @Override
+    public Optional<IWaystone> findWaystoneByName(String name, boolean ignoreCase) {
+        return WaystoneManager.get().findWaystoneByName(name, ignoreCase);
+    }
+
+    @Override
+    public List<IWaystone> findWaystonesByNamePrefix(String prefix, boolean ignoreCase) {
+        return WaystoneManager.get().findWaystonesByNamePrefix(prefix, ignoreCase);
+    }
+}
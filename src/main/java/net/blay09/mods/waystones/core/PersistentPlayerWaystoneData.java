@@ -6,81 +6,124 @@ import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.INBT;
 import net.minecraft.nbt.ListNBT;
-import net.minecraft.nbt.StringNBT;
+import net.minecraft.nbt.LongArrayNBT;
 import net.minecraftforge.common.util.Constants;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 
 public class PersistentPlayerWaystoneData implements IPlayerWaystoneData {
     private static final String TAG_NAME = "WaystonesData";
-    private static final String ACTIVATED_WAYSTONES = "Waystones";
+    private static final String ACTIVATED_WAYSTONES = "ActivatedWaystones";
+    private static final String ACTIVATED_WAYSTONES_LEGACY = "Waystones";
     private static final String INVENTORY_BUTTON_COOLDOWN_UNTIL = "InventoryButtonCooldownUntil";
     private static final String WARP_STONE_COOLDOWN_UNTIL = "WarpStoneCooldownUntil";
 
+    private final Map<UUID, ActivatedWaystones> activatedWaystonesCache = new HashMap<>();
+
     @Override
     public void activateWaystone(PlayerEntity player, IWaystone waystone) {
-        ListNBT activatedWaystonesData = getActivatedWaystonesData(getWaystonesData(player));
-        activatedWaystonesData.add(0, StringNBT.valueOf(waystone.getWaystoneUid().toString()));
+        activateWaystone(player.getUniqueID(), player.getPersistentData(), waystone);
+    }
+
+    void activateWaystone(UUID playerId, CompoundNBT playerData, IWaystone waystone) {
+        ActivatedWaystones activatedWaystones = getActivatedWaystones(playerId, playerData);
+        if (activatedWaystones.lookup.add(waystone.getWaystoneUid())) {
+            activatedWaystones.sorted.add(0, waystone.getWaystoneUid());
+            writeActivatedWaystones(playerData, activatedWaystones);
+        }
     }
 
     @Override
-    public boolean isWaystoneActivated(PlayerEntity player, IWaystone waystone) {
-        ListNBT activatedWaystones = getActivatedWaystonesData(getWaystonesData(player));
-        String waystoneUid = waystone.getWaystoneUid().toString();
-        for (INBT activatedWaystone : activatedWaystones) {
-            if (waystoneUid.equals(activatedWaystone.getString())) {
-                return true;
+    public void activateWaystones(PlayerEntity player, Collection<IWaystone> waystones) {
+        ActivatedWaystones activatedWaystones = getActivatedWaystones(player);
+        boolean changed = false;
+        for (IWaystone waystone : waystones) {
+            if (activatedWaystones.lookup.add(waystone.getWaystoneUid())) {
+                activatedWaystones.sorted.add(0, waystone.getWaystoneUid());
+                changed = true;
             }
         }
 
-        return false;
+        if (changed) {
+            writeActivatedWaystones(player.getPersistentData(), activatedWaystones);
+        }
+    }
+
+    @Override
+    public boolean isWaystoneActivated(PlayerEntity player, IWaystone waystone) {
+        return isWaystoneActivated(player.getUniqueID(), player.getPersistentData(), waystone);
+    }
+
+    boolean isWaystoneActivated(UUID playerId, CompoundNBT playerData, IWaystone waystone) {
+        return getActivatedWaystones(playerId, playerData).lookup.contains(waystone.getWaystoneUid());
     }
 
     @Override
     public List<IWaystone> getWaystones(PlayerEntity player) {
-        ListNBT activatedWaystones = getActivatedWaystonesData(getWaystonesData(player));
-        List<IWaystone> waystones = new ArrayList<>();
-        for (INBT activatedWaystone : activatedWaystones) {
-            WaystoneProxy proxy = new WaystoneProxy(UUID.fromString(activatedWaystone.getString()));
-            if (proxy.isValid()) {
-                waystones.add(proxy);
+        return getWaystones(player.getUniqueID(), player.getPersistentData());
+    }
+
+    List<IWaystone> getWaystones(UUID playerId, CompoundNBT playerData) {
+        ActivatedWaystones activatedWaystones = getActivatedWaystones(playerId, playerData);
+        long generation = WaystoneManager.getGeneration();
+        if (activatedWaystones.view == null || activatedWaystones.viewGeneration != generation) {
+            // Built once and then handed out until the activations change or waystones are added or removed
+            List<IWaystone> waystones = new ArrayList<>(activatedWaystones.sorted.size());
+            for (UUID activatedWaystone : activatedWaystones.sorted) {
+                WaystoneProxy proxy = activatedWaystones.proxies.computeIfAbsent(activatedWaystone, WaystoneProxy::new);
+                if (proxy.isValid()) {
+                    waystones.add(proxy);
+                }
             }
+
+            activatedWaystones.view = Collections.unmodifiableList(waystones);
+            activatedWaystones.viewGeneration = generation;
         }
 
-        return waystones;
+        return activatedWaystones.view;
     }
 
     @Override
     public void swapWaystoneSorting(PlayerEntity player, int index, int otherIndex) {
-        ListNBT activatedWaystones = getActivatedWaystonesData(getWaystonesData(player));
+        ActivatedWaystones activatedWaystones = getActivatedWaystones(player);
+        List<UUID> sorted = activatedWaystones.sorted;
         if (otherIndex == -1) {
-            INBT waystone = activatedWaystones.remove(index);
-            activatedWaystones.add(0, waystone);
-        } else if (otherIndex == activatedWaystones.size()) {
-            INBT waystone = activatedWaystones.remove(index);
-            activatedWaystones.add(waystone);
+            UUID waystone = sorted.remove(index);
+            sorted.add(0, waystone);
+        } else if (otherIndex == sorted.size()) {
+            UUID waystone = sorted.remove(index);
+            sorted.add(waystone);
         } else {
-            Collections.swap(activatedWaystones, index, otherIndex);
+            Collections.swap(sorted, index, otherIndex);
         }
+        writeActivatedWaystones(player.getPersistentData(), activatedWaystones);
     }
 
     @Override
     public void deactivateWaystone(PlayerEntity player, IWaystone waystone) {
-        CompoundNBT data = getWaystonesData(player);
-        ListNBT activatedWaystones = getActivatedWaystonesData(data);
-        String waystoneUid = waystone.getWaystoneUid().toString();
-        for (int i = activatedWaystones.size() - 1; i >= 0; i--) {
-            INBT activatedWaystone = activatedWaystones.get(i);
-            if (waystoneUid.equals(activatedWaystone.getString())) {
-                activatedWaystones.remove(i);
-                break;
-            }
+        deactivateWaystone(player.getUniqueID(), player.getPersistentData(), waystone);
+    }
+
+    void deactivateWaystone(UUID playerId, CompoundNBT playerData, IWaystone waystone) {
+        ActivatedWaystones activatedWaystones = getActivatedWaystones(playerId, playerData);
+        if (activatedWaystones.lookup.remove(waystone.getWaystoneUid())) {
+            activatedWaystones.sorted.remove(waystone.getWaystoneUid());
+            activatedWaystones.proxies.remove(waystone.getWaystoneUid());
+            writeActivatedWaystones(playerData, activatedWaystones);
         }
     }
 
+    /**
+     * Drops the in-memory activation state of the given player. The next access will load it from the player's NBT again.
+     */
+    public void invalidateCache(PlayerEntity player) {
+        invalidateCache(player.getUniqueID());
+    }
+
+    void invalidateCache(UUID playerId) {
+        activatedWaystonesCache.remove(playerId);
+    }
+
     @Override
     public long getWarpStoneCooldownUntil(PlayerEntity player) {
         return getWaystonesData(player).getLong(WARP_STONE_COOLDOWN_UNTIL);
@@ -101,18 +144,83 @@ public class PersistentPlayerWaystoneData implements IPlayerWaystoneData {
         getWaystonesData(player).putLong(INVENTORY_BUTTON_COOLDOWN_UNTIL, timeStamp);
     }
 
-    private static ListNBT getActivatedWaystonesData(CompoundNBT data) {
-        ListNBT list = data.getList(ACTIVATED_WAYSTONES, Constants.NBT.TAG_STRING);
-        data.put(ACTIVATED_WAYSTONES, list);
-        return list;
+    private ActivatedWaystones getActivatedWaystones(PlayerEntity player) {
+        return getActivatedWaystones(player.getUniqueID(), player.getPersistentData());
+    }
+
+    private ActivatedWaystones getActivatedWaystones(UUID playerId, CompoundNBT playerData) {
+        return activatedWaystonesCache.computeIfAbsent(playerId, it -> readActivatedWaystones(playerData));
+    }
+
+    private static ActivatedWaystones readActivatedWaystones(CompoundNBT playerData) {
+        CompoundNBT data = getWaystonesData(playerData);
+        if (!data.contains(ACTIVATED_WAYSTONES_LEGACY, Constants.NBT.TAG_LIST)) {
+            return readActivatedWaystones(data.getLongArray(ACTIVATED_WAYSTONES));
+        }
+
+        // Migrate from the old format that stored every waystone id as a string
+        ActivatedWaystones activatedWaystones = readLegacyActivatedWaystones(data.getList(ACTIVATED_WAYSTONES_LEGACY, Constants.NBT.TAG_STRING));
+        data.remove(ACTIVATED_WAYSTONES_LEGACY);
+        writeActivatedWaystones(playerData, activatedWaystones);
+        return activatedWaystones;
+    }
+
+    static ActivatedWaystones readActivatedWaystones(long[] uidBits) {
+        ActivatedWaystones activatedWaystones = new ActivatedWaystones();
+        for (int i = 0; i + 1 < uidBits.length; i += 2) {
+            UUID waystoneUid = new UUID(uidBits[i], uidBits[i + 1]);
+            if (activatedWaystones.lookup.add(waystoneUid)) {
+                activatedWaystones.sorted.add(waystoneUid);
+            }
+        }
+
+        return activatedWaystones;
+    }
+
+    static ActivatedWaystones readLegacyActivatedWaystones(ListNBT list) {
+        ActivatedWaystones activatedWaystones = new ActivatedWaystones();
+        for (INBT activatedWaystone : list) {
+            UUID waystoneUid = UUID.fromString(activatedWaystone.getString());
+            if (activatedWaystones.lookup.add(waystoneUid)) {
+                activatedWaystones.sorted.add(waystoneUid);
+            }
+        }
+
+        return activatedWaystones;
+    }
+
+    private static void writeActivatedWaystones(CompoundNBT playerData, ActivatedWaystones activatedWaystones) {
+        activatedWaystones.view = null;
+        getWaystonesData(playerData).put(ACTIVATED_WAYSTONES, writeActivatedWaystones(activatedWaystones));
+    }
+
+    static LongArrayNBT writeActivatedWaystones(ActivatedWaystones activatedWaystones) {
+        long[] uidBits = new long[activatedWaystones.sorted.size() * 2];
+        int i = 0;
+        for (UUID waystoneUid : activatedWaystones.sorted) {
+            uidBits[i++] = waystoneUid.getMostSignificantBits();
+            uidBits[i++] = waystoneUid.getLeastSignificantBits();
+        }
+        return new LongArrayNBT(uidBits);
     }
 
     private static CompoundNBT getWaystonesData(PlayerEntity player) {
-        CompoundNBT playerData = player.getPersistentData();
+        return getWaystonesData(player.getPersistentData());
+    }
+
+    private static CompoundNBT getWaystonesData(CompoundNBT playerData) {
         CompoundNBT persistedData = playerData.getCompound(PlayerEntity.PERSISTED_NBT_TAG);
         CompoundNBT compound = persistedData.getCompound(TAG_NAME);
         persistedData.put(TAG_NAME, compound);
         playerData.put(PlayerEntity.PERSISTED_NBT_TAG, persistedData);
         return compound;
     }
+
+    static class ActivatedWaystones {
+        private final List<UUID> sorted = new ArrayList<>();
+        private final Set<UUID> lookup = new HashSet<>();
+        private final Map<UUID, WaystoneProxy> proxies = new HashMap<>();
+        private List<IWaystone> view;
+        private long viewGeneration;
+    }
 }
@@ -1,14 +1,13 @@
 package net.blay09.mods.waystones.core;
 
-import com.google.common.collect.Sets;
 import net.blay09.mods.waystones.api.IWaystone;
 import net.blay09.mods.waystones.api.WaystoneActivatedEvent;
+import net.blay09.mods.waystones.api.WaystonesActivatedEvent;
 import net.blay09.mods.waystones.block.WaystoneBlock;
 import net.blay09.mods.waystones.config.DimensionalWarp;
 import net.blay09.mods.waystones.config.WaystonesConfig;
+import net.blay09.mods.waystones.config.WaystonesConfigSnapshot;
 import net.blay09.mods.waystones.item.ModItems;
-import net.blay09.mods.waystones.network.NetworkHandler;
-import net.blay09.mods.waystones.network.message.TeleportEffectMessage;
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.MobEntity;
@@ -20,8 +19,9 @@ import net.minecraft.network.play.server.SPlayEntityEffectPacket;
 import net.minecraft.network.play.server.SSetPassengersPacket;
 import net.minecraft.potion.EffectInstance;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.management.PlayerList;
 import net.minecraft.util.Direction;
-import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.RegistryKey;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
@@ -33,19 +33,20 @@ import net.minecraft.world.World;
 import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.LogicalSide;
-import net.minecraftforge.fml.network.PacketDistributor;
 import net.minecraftforge.fml.server.ServerLifecycleHooks;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import javax.annotation.Nullable;
-import java.util.List;
-import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.*;
 
 public class PlayerWaystoneManager {
 
-    private static final IPlayerWaystoneData persistentPlayerWaystoneData = new PersistentPlayerWaystoneData();
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final PersistentPlayerWaystoneData persistentPlayerWaystoneData = new PersistentPlayerWaystoneData();
     private static final IPlayerWaystoneData inMemoryPlayerWaystoneData = new InMemoryPlayerWaystoneData();
+    private static final Map<UUID, Set<UUID>> onlinePlayersByWaystone = new HashMap<>();
 
     public static boolean mayBreakWaystone(PlayerEntity player, IBlockReader world, BlockPos pos) {
         if (WaystonesConfig.SERVER.restrictToCreative.get() && !player.abilities.isCreativeMode) {
@@ -93,21 +94,62 @@ public class PlayerWaystoneManager {
     public static void activateWaystone(PlayerEntity player, IWaystone waystone) {
         if (!isWaystoneActivated(player, waystone)) {
             getPlayerWaystoneData(player.world).activateWaystone(player, waystone);
+            if (!player.world.isRemote) {
+                trackActivation(player.getUniqueID(), waystone.getWaystoneUid());
+            }
 
             MinecraftForge.EVENT_BUS.post(new WaystoneActivatedEvent(player, waystone));
         }
     }
 
+    /**
+     * Activates all given waystones that the player does not know yet. Posts a {@link WaystoneActivatedEvent} for each of them, followed by a single
+     * {@link WaystonesActivatedEvent} for the whole batch.
+     */
+    public static List<IWaystone> activateWaystones(PlayerEntity player, Collection<IWaystone> waystones) {
+        IPlayerWaystoneData playerWaystoneData = getPlayerWaystoneData(player.world);
+        List<IWaystone> newlyActivated = new ArrayList<>();
+        for (IWaystone waystone : waystones) {
+            if (!playerWaystoneData.isWaystoneActivated(player, waystone)) {
+                newlyActivated.add(waystone);
+            }
+        }
+
+        if (!newlyActivated.isEmpty()) {
+            playerWaystoneData.activateWaystones(player, newlyActivated);
+            if (!player.world.isRemote) {
+                for (IWaystone waystone : newlyActivated) {
+                    trackActivation(player.getUniqueID(), waystone.getWaystoneUid());
+                }
+            }
+
+            // Existing listeners rely on one event per waystone, the batched event is only posted in addition to those
+            for (IWaystone waystone : newlyActivated) {
+                MinecraftForge.EVENT_BUS.post(new WaystoneActivatedEvent(player, waystone));
+            }
+            MinecraftForge.EVENT_BUS.post(new WaystonesActivatedEvent(player, newlyActivated));
+        }
+
+        return newlyActivated;
+    }
+
     @Deprecated
     public static int getExperienceLevelCost(PlayerEntity player, IWaystone waystone, WarpMode warpMode) {
         return getExperienceLevelCost(player, waystone, warpMode, (Waystone) null);
     }
 
     public static int getExperienceLevelCost(PlayerEntity player, IWaystone waystone, WarpMode warpMode, @Nullable IWaystone fromWaystone) {
+        return getExperienceLevelCost(player, waystone, warpMode, createCostContext(player, fromWaystone));
+    }
+
+    /**
+     * Looks up the leashed animals once, so that the returned context can be used to calculate the cost for many waystones.
+     */
+    public static WaystoneTeleportContext createCostContext(PlayerEntity player, @Nullable IWaystone fromWaystone) {
         WaystoneTeleportContext context = new WaystoneTeleportContext();
         context.setLeashedEntities(findLeashedAnimals(player));
         context.setFromWaystone(fromWaystone);
-        return getExperienceLevelCost(player, waystone, warpMode, context);
+        return context;
     }
 
     public static int getExperienceLevelCost(PlayerEntity player, IWaystone waystone, WarpMode warpMode, WaystoneTeleportContext context) {
@@ -115,35 +157,46 @@ public class PlayerWaystoneManager {
             return 0;
         }
 
-        boolean enableXPCost = !player.abilities.isCreativeMode;
+        if (player.abilities.isCreativeMode) {
+            return 0;
+        }
 
-        int xpForLeashed = WaystonesConfig.SERVER.costPerLeashed.get() * context.getLeashedEntities().size();
+        boolean isDimensionalWarp = waystone.getDimension() != player.world.getDimensionKey();
+        BlockPos pos = waystone.getPos();
+        double dist = isDimensionalWarp ? 0 : Math.sqrt(player.getDistanceSq(pos.getX(), pos.getY(), pos.getZ()));
+        return getExperienceLevelCost(waystone, warpMode, isDimensionalWarp, dist, context.getLeashedEntities().size());
+    }
+
+    /**
+     * Calculates the xp level cost of a teleport over the given distance. Does not account for creative mode.
+     */
+    public static int getExperienceLevelCost(IWaystone waystone, WarpMode warpMode, boolean isDimensionalWarp, double dist, int leashedCount) {
+        WaystonesConfigSnapshot config = WaystonesConfig.getSnapshot();
+        int xpForLeashed = config.costPerLeashed * leashedCount;
 
-        if (waystone.getDimension() != player.world.getDimensionKey()) {
-            return enableXPCost ? WaystonesConfig.SERVER.dimensionalWarpXpCost.get() + xpForLeashed : 0;
+        if (isDimensionalWarp) {
+            return config.dimensionalWarpXpCost + xpForLeashed;
         }
 
-        double xpCostMultiplier = warpMode.getXpCostMultiplier();
+        double xpCostMultiplier = warpMode.getXpCostMultiplier(config);
         if (waystone.isGlobal()) {
-            xpCostMultiplier *= WaystonesConfig.SERVER.globalWaystoneXpCostMultiplier.get();
+            xpCostMultiplier *= config.globalWaystoneXpCostMultiplier;
         }
 
-        BlockPos pos = waystone.getPos();
-        double dist = Math.sqrt(player.getDistanceSq(pos.getX(), pos.getY(), pos.getZ()));
-        final double minimumXpCost = WaystonesConfig.SERVER.minimumXpCost.get();
-        final double maximumXpCost = WaystonesConfig.SERVER.maximumXpCost.get();
+        final double minimumXpCost = config.minimumXpCost;
+        final double maximumXpCost = config.maximumXpCost;
         double xpLevelCost;
-        if (WaystonesConfig.SERVER.blocksPerXPLevel.get() > 0) {
-            xpLevelCost = MathHelper.clamp(dist / (float) WaystonesConfig.SERVER.blocksPerXPLevel.get(), minimumXpCost, maximumXpCost);
+        if (config.blocksPerXPLevel > 0) {
+            xpLevelCost = MathHelper.clamp(dist / (float) config.blocksPerXPLevel, minimumXpCost, maximumXpCost);
 
-            if (WaystonesConfig.SERVER.inverseXpCost.get()) {
+            if (config.inverseXpCost) {
                 xpLevelCost = maximumXpCost - xpLevelCost;
             }
         } else {
             xpLevelCost = minimumXpCost;
         }
 
-        return enableXPCost ? (int) Math.round((xpLevelCost + xpForLeashed) * xpCostMultiplier) : 0;
+        return (int) Math.round((xpLevelCost + xpForLeashed) * xpCostMultiplier);
     }
 
 
@@ -156,7 +209,7 @@ public class PlayerWaystoneManager {
     }
 
     public static double getCooldownMultiplier(IWaystone waystone) {
-        return waystone.isGlobal() ? WaystonesConfig.SERVER.globalWaystoneCooldownMultiplier.get() : 1f;
+        return waystone.isGlobal() ? WaystonesConfig.getSnapshot().globalWaystoneCooldownMultiplier : 1f;
     }
 
     private static void informPlayer(PlayerEntity player, String translationKey) {
@@ -166,108 +219,211 @@ public class PlayerWaystoneManager {
     }
 
     public static boolean tryTeleportToWaystone(ServerPlayerEntity player, IWaystone waystone, WarpMode warpMode, @Nullable IWaystone fromWaystone) {
-        if (!waystone.isValid()) {
+        if (WaystoneTeleportQueue.isPending(player.getUniqueID())) {
+            informPlayer(player, "chat.waystones.teleport_already_pending");
             return false;
         }
 
-        ItemStack warpItem = findWarpItem(player, warpMode);
-        if (!canUseWarpMode(player, warpMode, warpItem, fromWaystone)) {
+        long startTime = System.nanoTime();
+        WaystoneTeleportContext context = prepareTeleport(player, waystone, warpMode, fromWaystone, false);
+        if (context == null) {
             return false;
         }
 
+        long preparedTime = System.nanoTime();
+        ServerWorld targetWorld = context.getTargetWorld();
+        if (WaystonesConfig.getSnapshot().deferChunkLoading && !WaystoneTeleportQueue.isLandingAreaLoaded(targetWorld, waystone.getPos())) {
+            // Let the chunk load in the background instead of stalling this tick, the teleport is completed once it is ready. The costs are taken
+            // right away so they cannot be spent twice in the meantime, and are refunded if the teleport is dropped.
+            chargeTeleport(player, waystone, warpMode, context);
+            WaystoneTeleportQueue.enqueue(player, waystone, warpMode, context, startTime, preparedTime);
+            return true;
+        }
+
+        boolean result = completeTeleport(player, waystone, warpMode, context, false);
+        logTeleportTimings(player, startTime, preparedTime, preparedTime, System.nanoTime(), 0);
+        return result;
+    }
+
+    static void completeDeferredTeleport(ServerPlayerEntity player, IWaystone waystone, WarpMode warpMode, WaystoneTeleportContext reservedContext, long startTime, long preparedTime, int ticksWaited) {
+        // Things may have changed while the chunk was loading, so check everything again except for the costs that were already taken
+        long chunkReadyTime = System.nanoTime();
+        WaystoneTeleportContext context = prepareTeleport(player, waystone, warpMode, reservedContext.getFromWaystone(), true);
+        if (context != null && completeTeleport(player, waystone, warpMode, context, true)) {
+            logTeleportTimings(player, startTime, preparedTime, chunkReadyTime, System.nanoTime(), ticksWaited);
+        } else {
+            refundTeleport(player, warpMode, reservedContext);
+            informPlayer(player, "chat.waystones.teleport_cancelled");
+        }
+    }
+
+    @Nullable
+    private static WaystoneTeleportContext prepareTeleport(ServerPlayerEntity player, IWaystone waystone, WarpMode warpMode, @Nullable IWaystone fromWaystone, boolean isReserved) {
+        if (!waystone.isValid()) {
+            return null;
+        }
+
+        if (!isReserved) {
+            ItemStack warpItem = findWarpItem(player, warpMode);
+            if (!canUseWarpMode(player, warpMode, warpItem, fromWaystone)) {
+                return null;
+            }
+        }
+
         boolean isDimensionalWarp = waystone.getDimension() != player.world.getDimensionKey();
         if (isDimensionalWarp && !canDimensionalWarpTo(player, waystone)) {
             informPlayer(player, "chat.waystones.cannot_dimension_warp");
-            return false;
+            return null;
         }
 
         List<MobEntity> leashed = findLeashedAnimals(player);
         if (!leashed.isEmpty()) {
-            if (!WaystonesConfig.SERVER.transportLeashed.get()) {
+            WaystonesConfigSnapshot config = WaystonesConfig.getSnapshot();
+            if (!config.transportLeashed) {
                 informPlayer(player, "chat.waystones.cannot_transport_leashed");
-                return false;
+                return null;
             }
 
-            List<ResourceLocation> forbidden = WaystonesConfig.SERVER.leashedBlacklist.get().stream().map(ResourceLocation::new).collect(Collectors.toList());
-            if (leashed.stream().anyMatch(e -> forbidden.contains(e.getType().getRegistryName()))) {
+            if (leashed.stream().anyMatch(e -> config.leashedBlacklist.contains(e.getType().getRegistryName()))) {
                 informPlayer(player, "chat.waystones.cannot_transport_this_leashed");
-                return false;
+                return null;
             }
 
-            if (isDimensionalWarp && !WaystonesConfig.SERVER.transportLeashedDimensional.get()) {
+            if (isDimensionalWarp && !config.transportLeashedDimensional) {
                 informPlayer(player, "chat.waystones.cannot_transport_leashed_dimensional");
-                return false;
+                return null;
             }
         }
 
         MinecraftServer server = player.getServer();
         ServerWorld targetWorld = Objects.requireNonNull(server).getWorld(waystone.getDimension());
-        BlockPos pos = waystone.getPos();
-        BlockState state = targetWorld != null ? targetWorld.getBlockState(pos) : null;
-        if (targetWorld == null || !(state.getBlock() instanceof WaystoneBlock)) {
-            TranslationTextComponent chatComponent = new TranslationTextComponent("chat.waystones.waystone_missing");
-            chatComponent.mergeStyle(TextFormatting.RED);
-            player.sendStatusMessage(chatComponent, false);
-            return false;
-        }
-
-        Direction direction = state.get(WaystoneBlock.FACING);
-        Set<Direction> directionCandidates = Sets.newHashSet(direction, Direction.EAST, Direction.WEST, Direction.SOUTH, Direction.NORTH);
-        for (Direction candidate : directionCandidates) {
-            BlockPos offsetPos = pos.offset(candidate);
-            BlockPos offsetPosUp = offsetPos.up();
-            if (targetWorld.getBlockState(offsetPos).isSuffocating(targetWorld, offsetPos) || targetWorld.getBlockState(offsetPosUp).isSuffocating(targetWorld, offsetPosUp)) {
-                continue;
-            }
-
-            direction = candidate;
-            break;
+        if (targetWorld == null) {
+            informPlayer(player, "chat.waystones.waystone_missing");
+            return null;
         }
 
         WaystoneTeleportContext context = new WaystoneTeleportContext();
         context.setLeashedEntities(leashed);
-        context.setDirection(direction);
         context.setTargetWorld(targetWorld);
         context.setFromWaystone(fromWaystone);
 
-        int xpLevelCost = getExperienceLevelCost(player, waystone, warpMode, context);
-        if (player.experienceLevel < xpLevelCost) {
+        if (!isReserved) {
+            int xpLevelCost = getExperienceLevelCost(player, waystone, warpMode, context);
+            if (player.experienceLevel < xpLevelCost) {
+                return null;
+            }
+        }
+
+        return context;
+    }
+
+    private static boolean completeTeleport(ServerPlayerEntity player, IWaystone waystone, WarpMode warpMode, WaystoneTeleportContext context, boolean isReserved) {
+        ServerWorld targetWorld = context.getTargetWorld();
+        BlockPos pos = waystone.getPos();
+        BlockState state = targetWorld.getBlockState(pos);
+        if (!(state.getBlock() instanceof WaystoneBlock)) {
+            informPlayer(player, "chat.waystones.waystone_missing");
             return false;
         }
 
+        Direction direction = state.get(WaystoneBlock.FACING);
+        context.setDirection(findLandingDirection(targetWorld, pos, direction));
+
+        if (!isReserved) {
+            chargeTeleport(player, waystone, warpMode, context);
+        }
+
+        teleportToWaystone(player, waystone, context);
+        return true;
+    }
+
+    /**
+     * Takes the item, cooldown and experience cost of a teleport, and remembers them in the context so they can be refunded.
+     */
+    private static void chargeTeleport(ServerPlayerEntity player, IWaystone waystone, WarpMode warpMode, WaystoneTeleportContext context) {
         if (warpMode.consumesItem() && !player.abilities.isCreativeMode) {
+            ItemStack warpItem = findWarpItem(player, warpMode);
+            ItemStack consumedItem = warpItem.copy();
+            consumedItem.setCount(1);
+            context.setConsumedItem(consumedItem);
             warpItem.shrink(1);
         }
 
         if (warpMode == WarpMode.INVENTORY_BUTTON) {
-            int cooldown = (int) (WaystonesConfig.SERVER.inventoryButtonCooldown.get() * getCooldownMultiplier(waystone));
+            int cooldown = (int) (WaystonesConfig.getSnapshot().inventoryButtonCooldown * getCooldownMultiplier(waystone));
+            context.setPreviousCooldownUntil(getInventoryButtonCooldownUntil(player));
             getPlayerWaystoneData(player.world).setInventoryButtonCooldownUntil(player, System.currentTimeMillis() + cooldown * 1000);
             WaystoneSyncManager.sendWaystoneCooldowns(player);
         } else if (warpMode == WarpMode.WARP_STONE) {
-            int cooldown = (int) (WaystonesConfig.SERVER.warpStoneCooldown.get() * getCooldownMultiplier(waystone));
+            int cooldown = (int) (WaystonesConfig.getSnapshot().warpStoneCooldown * getCooldownMultiplier(waystone));
+            context.setPreviousCooldownUntil(getWarpStoneCooldownUntil(player));
             getPlayerWaystoneData(player.world).setWarpStoneCooldownUntil(player, System.currentTimeMillis() + cooldown * 1000);
             WaystoneSyncManager.sendWaystoneCooldowns(player);
         }
 
+        int xpLevelCost = getExperienceLevelCost(player, waystone, warpMode, context);
         if (xpLevelCost > 0) {
             player.addExperienceLevel(-xpLevelCost);
+            context.setChargedXpLevels(xpLevelCost);
         }
+    }
 
-        teleportToWaystone(player, waystone, context);
-        return true;
+    static void refundTeleport(ServerPlayerEntity player, WarpMode warpMode, WaystoneTeleportContext context) {
+        ItemStack consumedItem = context.getConsumedItem();
+        if (!consumedItem.isEmpty() && !player.inventory.addItemStackToInventory(consumedItem.copy())) {
+            player.dropItem(consumedItem.copy(), false);
+        }
+
+        if (warpMode == WarpMode.INVENTORY_BUTTON) {
+            getPlayerWaystoneData(player.world).setInventoryButtonCooldownUntil(player, context.getPreviousCooldownUntil());
+            WaystoneSyncManager.sendWaystoneCooldowns(player);
+        } else if (warpMode == WarpMode.WARP_STONE) {
+            getPlayerWaystoneData(player.world).setWarpStoneCooldownUntil(player, context.getPreviousCooldownUntil());
+            WaystoneSyncManager.sendWaystoneCooldowns(player);
+        }
+
+        if (context.getChargedXpLevels() > 0) {
+            player.addExperienceLevel(context.getChargedXpLevels());
+        }
+    }
+
+    private static Direction findLandingDirection(ServerWorld world, BlockPos pos, Direction facing) {
+        // Prefer the side the waystone is facing, then fall back to the other sides in a fixed order
+        if (isSafeLandingSpot(world, pos.offset(facing))) {
+            return facing;
+        }
+
+        for (Direction candidate : Direction.Plane.HORIZONTAL) {
+            if (candidate != facing && isSafeLandingSpot(world, pos.offset(candidate))) {
+                return candidate;
+            }
+        }
+
+        return facing;
+    }
+
+    private static boolean isSafeLandingSpot(ServerWorld world, BlockPos pos) {
+        BlockPos posUp = pos.up();
+        return !world.getBlockState(pos).isSuffocating(world, pos) && !world.getBlockState(posUp).isSuffocating(world, posUp);
+    }
+
+    private static void logTeleportTimings(ServerPlayerEntity player, long startTime, long preparedTime, long chunkReadyTime, long endTime, int ticksWaited) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Teleport of {} took {}µs for checks, {}ms ({} ticks) waiting for the target chunk and {}µs for landing and teleport",
+                    player.getName().getString(), (preparedTime - startTime) / 1000, (chunkReadyTime - preparedTime) / 1000000, ticksWaited, (endTime - chunkReadyTime) / 1000);
+        }
     }
 
     private static boolean canDimensionalWarpTo(PlayerEntity player, IWaystone waystone) {
-        ResourceLocation dimension = waystone.getDimension().getLocation();
-        List<? extends String> dimensionAllowList = WaystonesConfig.COMMON.dimensionalWarpAllowList.get();
-        List<? extends String> dimensionDenyList = WaystonesConfig.COMMON.dimensionalWarpDenyList.get();
-        if (!dimensionAllowList.isEmpty() && !dimensionAllowList.contains(dimension.toString())) {
+        WaystonesConfigSnapshot config = WaystonesConfig.getSnapshot();
+        RegistryKey<World> dimension = waystone.getDimension();
+        if (!config.dimensionalWarpAllowList.isEmpty() && !config.dimensionalWarpAllowList.contains(dimension)) {
             return false;
-        } else if (!dimensionDenyList.isEmpty() && dimensionDenyList.contains(dimension.toString())) {
+        } else if (config.dimensionalWarpDenyList.contains(dimension)) {
             return false;
         }
 
-        DimensionalWarp dimensionalWarpMode = WaystonesConfig.SERVER.dimensionalWarp.get();
+        DimensionalWarp dimensionalWarpMode = config.dimensionalWarp;
         return dimensionalWarpMode == DimensionalWarp.ALLOW || dimensionalWarpMode == DimensionalWarp.GLOBAL_ONLY && waystone.isGlobal();
     }
 
@@ -303,6 +459,7 @@ public class PlayerWaystoneManager {
     }
 
     private static void teleportToWaystone(ServerPlayerEntity player, IWaystone waystone, WaystoneTeleportContext context) {
+        ServerWorld sourceWorld = player.getServerWorld();
         BlockPos sourcePos = player.getPosition();
         BlockPos pos = waystone.getPos();
         Direction direction = context.getDirection();
@@ -332,8 +489,8 @@ public class PlayerWaystoneManager {
         }
         player.setExperienceLevel(player.experienceLevel);
 
-        NetworkHandler.channel.send(PacketDistributor.TRACKING_CHUNK.with(() -> player.world.getChunkAt(sourcePos)), new TeleportEffectMessage(sourcePos));
-        NetworkHandler.channel.send(PacketDistributor.TRACKING_CHUNK.with(() -> player.world.getChunkAt(targetPos)), new TeleportEffectMessage(targetPos));
+        TeleportEffectBatcher.add(sourceWorld, sourcePos);
+        TeleportEffectBatcher.add(targetWorld, targetPos);
 
         context.getLeashedEntities().forEach(mob -> {
             if (targetWorld == mob.world) mob.setPosition(targetPos3d.x, targetPos3d.y, targetPos3d.z);
@@ -343,6 +500,43 @@ public class PlayerWaystoneManager {
 
     public static void deactivateWaystone(PlayerEntity player, IWaystone waystone) {
         getPlayerWaystoneData(player.world).deactivateWaystone(player, waystone);
+        if (!player.world.isRemote) {
+            untrackActivation(player.getUniqueID(), waystone.getWaystoneUid());
+        }
+    }
+
+    /**
+     * Returns the online players that have the given waystone activated.
+     */
+    public static List<ServerPlayerEntity> getPlayersWithWaystoneActivated(IWaystone waystone) {
+        Set<UUID> playerIds = onlinePlayersByWaystone.get(waystone.getWaystoneUid());
+        if (playerIds == null) {
+            return Collections.emptyList();
+        }
+
+        PlayerList playerList = ServerLifecycleHooks.getCurrentServer().getPlayerList();
+        List<ServerPlayerEntity> players = new ArrayList<>(playerIds.size());
+        for (UUID playerId : playerIds) {
+            ServerPlayerEntity player = playerList.getPlayerByUUID(playerId);
+            if (player != null) {
+                players.add(player);
+            }
+        }
+        return players;
+    }
+
+    private static void trackActivation(UUID playerId, UUID waystoneUid) {
+        onlinePlayersByWaystone.computeIfAbsent(waystoneUid, it -> new HashSet<>()).add(playerId);
+    }
+
+    private static void untrackActivation(UUID playerId, UUID waystoneUid) {
+        Set<UUID> playerIds = onlinePlayersByWaystone.get(waystoneUid);
+        if (playerIds != null) {
+            playerIds.remove(playerId);
+            if (playerIds.isEmpty()) {
+                onlinePlayersByWaystone.remove(waystoneUid);
+            }
+        }
     }
 
     private static boolean canUseWarpMode(PlayerEntity player, WarpMode warpMode, ItemStack heldItem, @Nullable IWaystone fromWaystone) {
@@ -413,6 +607,25 @@ public class PlayerWaystoneManager {
         return side.isClient() ? inMemoryPlayerWaystoneData : persistentPlayerWaystoneData;
     }
 
+    public static void onPlayerLoggedIn(PlayerEntity player) {
+        for (IWaystone waystone : getWaystones(player)) {
+            trackActivation(player.getUniqueID(), waystone.getWaystoneUid());
+        }
+    }
+
+    public static void onPlayerLoggedOut(PlayerEntity player) {
+        // Waystones that were removed or became invalid are no longer listed for the player, so clear the player from every entry instead
+        UUID playerId = player.getUniqueID();
+        Iterator<Set<UUID>> it = onlinePlayersByWaystone.values().iterator();
+        while (it.hasNext()) {
+            Set<UUID> playerIds = it.next();
+            if (playerIds.remove(playerId) && playerIds.isEmpty()) {
+                it.remove();
+            }
+        }
+        persistentPlayerWaystoneData.invalidateCache(player);
+    }
+
     public static boolean mayTeleportToWaystone(PlayerEntity player, IWaystone waystone) {
         return true;
     }
@@ -430,15 +643,17 @@ public class PlayerWaystoneManager {
         for (ServerPlayerEntity player : players) {
             if (!isWaystoneActivated(player, waystone)) {
                 activateWaystone(player, waystone);
+                WaystoneSyncManager.sendWaystoneAdded(player, waystone);
             }
         }
     }
 
     public static void removeKnownWaystone(IWaystone waystone) {
-        List<ServerPlayerEntity> players = ServerLifecycleHooks.getCurrentServer().getPlayerList().getPlayers();
+        List<ServerPlayerEntity> players = getPlayersWithWaystoneActivated(waystone);
+        WaystoneSyncManager.countAvoidedPackets(players.size());
         for (ServerPlayerEntity player : players) {
             deactivateWaystone(player, waystone);
-            WaystoneSyncManager.sendKnownWaystones(player);
+            WaystoneSyncManager.sendWaystoneRemoved(player, waystone);
         }
     }
 }
@@ -0,0 +1,60 @@
+package net.blay09.mods.waystones.core;
+
+import net.blay09.mods.waystones.network.NetworkHandler;
+import net.blay09.mods.waystones.network.message.TeleportEffectMessage;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+
+import java.util.*;
+
+/**
+ * Collects the teleport effects of a tick and sends them out at the end of it, as one message per player containing only the effects within
+ * their range.
+ */
+public class TeleportEffectBatcher {
+
+    public static final int EFFECT_RADIUS = 64;
+
+    private static final Map<RegistryKey<World>, Set<BlockPos>> pendingEffects = new HashMap<>();
+
+    public static void add(ServerWorld world, BlockPos pos) {
+        pendingEffects.computeIfAbsent(world.getDimensionKey(), it -> new LinkedHashSet<>()).add(pos.toImmutable());
+    }
+
+    public static void clear() {
+        pendingEffects.clear();
+    }
+
+    public static void flush(MinecraftServer server) {
+        if (pendingEffects.isEmpty()) {
+            return;
+        }
+
+        double radiusSq = EFFECT_RADIUS * EFFECT_RADIUS;
+        for (Map.Entry<RegistryKey<World>, Set<BlockPos>> entry : pendingEffects.entrySet()) {
+            ServerWorld world = server.getWorld(entry.getKey());
+            if (world == null) {
+                continue;
+            }
+
+            for (ServerPlayerEntity player : world.getPlayers()) {
+                List<BlockPos> positions = new ArrayList<>();
+                for (BlockPos pos : entry.getValue()) {
+                    if (player.getDistanceSq(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5) <= radiusSq) {
+                        positions.add(pos);
+                    }
+                }
+
+                if (!positions.isEmpty()) {
+                    NetworkHandler.sendTo(new TeleportEffectMessage(positions), player);
+                }
+            }
+        }
+
+        pendingEffects.clear();
+    }
+}
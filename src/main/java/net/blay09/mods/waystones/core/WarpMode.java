@@ -1,29 +1,34 @@
 package net.blay09.mods.waystones.core;
 
 import net.blay09.mods.waystones.config.WaystonesConfig;
+import net.blay09.mods.waystones.config.WaystonesConfigSnapshot;
 
-import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 
 public enum WarpMode {
-    INVENTORY_BUTTON(WaystonesConfig.SERVER.inventoryButtonXpCostMultiplier::get, false),
-    WARP_SCROLL(() -> 0.0, true),
-    RETURN_SCROLL(() -> 0.0, true),
-    BOUND_SCROLL(() -> 0.0, true),
-    WARP_STONE(WaystonesConfig.SERVER.warpStoneXpCostMultiplier::get, false),
-    WAYSTONE_TO_WAYSTONE(WaystonesConfig.SERVER.waystoneXpCostMultiplier::get, false);
+    INVENTORY_BUTTON(it -> it.inventoryButtonXpCostMultiplier, false),
+    WARP_SCROLL(it -> 0.0, true),
+    RETURN_SCROLL(it -> 0.0, true),
+    BOUND_SCROLL(it -> 0.0, true),
+    WARP_STONE(it -> it.warpStoneXpCostMultiplier, false),
+    WAYSTONE_TO_WAYSTONE(it -> it.waystoneXpCostMultiplier, false);
 
     public static WarpMode[] values = values();
 
-    private final Supplier<Double> xpCostMultiplierSupplier;
+    private final ToDoubleFunction<WaystonesConfigSnapshot> xpCostMultiplier;
     private final boolean consumesItem;
 
-    WarpMode(Supplier<Double> xpCostMultiplierSupplier, boolean consumesItem) {
-        this.xpCostMultiplierSupplier = xpCostMultiplierSupplier;
+    WarpMode(ToDoubleFunction<WaystonesConfigSnapshot> xpCostMultiplier, boolean consumesItem) {
+        this.xpCostMultiplier = xpCostMultiplier;
         this.consumesItem = consumesItem;
     }
 
     public double getXpCostMultiplier() {
-        return xpCostMultiplierSupplier.get();
+        return getXpCostMultiplier(WaystonesConfig.getSnapshot());
+    }
+
+    public double getXpCostMultiplier(WaystonesConfigSnapshot config) {
+        return xpCostMultiplier.applyAsDouble(config);
     }
 
     public boolean consumesItem() {
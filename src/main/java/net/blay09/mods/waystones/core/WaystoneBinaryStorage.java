@@ -0,0 +1,354 @@
+package net.blay09.mods.waystones.core;
+
+import net.blay09.mods.waystones.Waystones;
+import net.blay09.mods.waystones.api.IWaystone;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.ResourceLocationException;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.world.World;
+import net.minecraft.world.storage.FolderName;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Compact columnar file format for the waystone registry. All waystones are written in one go as a sequence of
+ * columns (uids, dimension indices, packed positions, flags, owners, names), with dimensions stored once in a string table.
+ * <p>
+ * Changes made since the last snapshot are appended to a change log next to the snapshot file. The change log is tagged
+ * with the generation of the snapshot it applies to, so a log left over from an older snapshot is ignored.
+ */
+public class WaystoneBinaryStorage {
+
+    private static final int MAGIC = 0x57535442; // WSTB
+    private static final int LOG_MAGIC = 0x5753544C; // WSTL
+    private static final int VERSION = 2;
+
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_REMOVE = 2;
+
+    private static final byte FLAG_WAS_GENERATED = 1;
+    private static final byte FLAG_GLOBAL = 2;
+    private static final byte FLAG_HAS_OWNER = 4;
+
+    public static Path getStorageFile(MinecraftServer server) {
+        return server.func_240776_a_(FolderName.DOT).resolve("data").resolve(Waystones.MOD_ID + ".bin");
+    }
+
+    public static Path getChangeLogFile(Path storageFile) {
+        return storageFile.resolveSibling(storageFile.getFileName() + ".log");
+    }
+
+    public static Path getBackupFile(Path storageFile) {
+        return storageFile.resolveSibling(storageFile.getFileName() + ".bak");
+    }
+
+    public static void write(Path file, Collection<IWaystone> waystones, long generation) throws IOException {
+        ByteBuffer buffer = encode(waystones, generation);
+        Files.createDirectories(file.getParent());
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Snapshot read(Path file) throws IOException {
+        return decode(readFully(file));
+    }
+
+    public static void appendChangeLog(Path file, long generation, Collection<IWaystone> updated, Collection<UUID> removed) throws IOException {
+        boolean isNewLog = !Files.exists(file);
+        int size = isNewLog ? 12 : 0;
+        List<byte[]> dimensions = new ArrayList<>(updated.size());
+        List<byte[]> names = new ArrayList<>(updated.size());
+        for (IWaystone waystone : updated) {
+            byte[] dimension = waystone.getDimension().getLocation().toString().getBytes(StandardCharsets.UTF_8);
+            byte[] name = waystone.getName().getBytes(StandardCharsets.UTF_8);
+            dimensions.add(dimension);
+            names.add(name);
+            size += 1 + 16 + 4 + dimension.length + 8 + 1 + 16 + 4 + name.length;
+        }
+        size += removed.size() * (1 + 16);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        if (isNewLog) {
+            buffer.putInt(LOG_MAGIC);
+            buffer.putLong(generation);
+        }
+
+        int i = 0;
+        for (IWaystone waystone : updated) {
+            buffer.put(RECORD_PUT);
+            putUuid(buffer, waystone.getWaystoneUid());
+            putBytes(buffer, dimensions.get(i));
+            buffer.putLong(waystone.getPos().toLong());
+            buffer.put(getFlags(waystone));
+            UUID ownerUid = waystone.getOwnerUid();
+            buffer.putLong(ownerUid != null ? ownerUid.getMostSignificantBits() : 0);
+            buffer.putLong(ownerUid != null ? ownerUid.getLeastSignificantBits() : 0);
+            putBytes(buffer, names.get(i));
+            i++;
+        }
+        for (UUID waystoneUid : removed) {
+            buffer.put(RECORD_REMOVE);
+            putUuid(buffer, waystoneUid);
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Replays the change log on top of the given snapshot. Returns the number of records applied, or -1 if the log does not belong to the snapshot.
+     * A log that ends in a truncated or unreadable record is marked via {@link Snapshot#isChangeLogDamaged()}.
+     */
+    public static int replayChangeLog(Path file, Snapshot snapshot) throws IOException {
+        ByteBuffer buffer = readFully(file);
+        if (buffer.remaining() < 12 || buffer.getInt() != LOG_MAGIC || buffer.getLong() != snapshot.getGeneration()) {
+            return -1;
+        }
+
+        Map<UUID, Waystone> waystones = new LinkedHashMap<>();
+        for (Waystone waystone : snapshot.getWaystones()) {
+            waystones.put(waystone.getWaystoneUid(), waystone);
+        }
+
+        int records = 0;
+        try {
+            while (buffer.hasRemaining()) {
+                byte type = buffer.get();
+                UUID waystoneUid = new UUID(buffer.getLong(), buffer.getLong());
+                if (type == RECORD_PUT) {
+                    RegistryKey<World> dimension = RegistryKey.getOrCreateKey(Registry.WORLD_KEY, new ResourceLocation(readString(buffer)));
+                    BlockPos pos = BlockPos.fromLong(buffer.getLong());
+                    byte flags = buffer.get();
+                    long ownerMost = buffer.getLong();
+                    long ownerLeast = buffer.getLong();
+                    String name = readString(buffer);
+                    UUID ownerUid = (flags & FLAG_HAS_OWNER) != 0 ? new UUID(ownerMost, ownerLeast) : null;
+                    Waystone waystone = new Waystone(waystoneUid, dimension, pos, (flags & FLAG_WAS_GENERATED) != 0, ownerUid);
+                    waystone.setName(name);
+                    waystone.setGlobal((flags & FLAG_GLOBAL) != 0);
+                    waystones.put(waystoneUid, waystone);
+                } else if (type == RECORD_REMOVE) {
+                    waystones.remove(waystoneUid);
+                } else {
+                    // Nothing after an unknown record can be trusted, keep everything before it
+                    snapshot.changeLogDamaged = true;
+                    break;
+                }
+                records++;
+            }
+        } catch (BufferUnderflowException | NegativeArraySizeException | ResourceLocationException e) {
+            // The last record was only partially written or is garbage, everything before it is still valid
+            snapshot.changeLogDamaged = true;
+        }
+
+        snapshot.waystones = new ArrayList<>(waystones.values());
+        return records;
+    }
+
+    public static ByteBuffer encode(Collection<IWaystone> waystones, long generation) {
+        int count = waystones.size();
+        Map<RegistryKey<World>, Integer> dimensionIndices = new LinkedHashMap<>();
+        byte[][] names = new byte[count][];
+        int namesSize = 0;
+        int i = 0;
+        for (IWaystone waystone : waystones) {
+            dimensionIndices.putIfAbsent(waystone.getDimension(), dimensionIndices.size());
+            names[i] = waystone.getName().getBytes(StandardCharsets.UTF_8);
+            namesSize += 4 + names[i].length;
+            i++;
+        }
+
+        byte[][] dimensionNames = new byte[dimensionIndices.size()][];
+        int dimensionsSize = 0;
+        for (Map.Entry<RegistryKey<World>, Integer> entry : dimensionIndices.entrySet()) {
+            byte[] dimensionName = entry.getKey().getLocation().toString().getBytes(StandardCharsets.UTF_8);
+            dimensionNames[entry.getValue()] = dimensionName;
+            dimensionsSize += 4 + dimensionName.length;
+        }
+
+        int size = 4 + 4 + 8 + 4 // magic, version, generation, count
+                + 4 + dimensionsSize
+                + count * (8 + 8 + 4 + 8 + 1 + 8 + 8)
+                + namesSize;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(generation);
+        buffer.putInt(count);
+
+        buffer.putInt(dimensionNames.length);
+        for (byte[] dimensionName : dimensionNames) {
+            buffer.putInt(dimensionName.length);
+            buffer.put(dimensionName);
+        }
+
+        for (IWaystone waystone : waystones) {
+            buffer.putLong(waystone.getWaystoneUid().getMostSignificantBits());
+        }
+        for (IWaystone waystone : waystones) {
+            buffer.putLong(waystone.getWaystoneUid().getLeastSignificantBits());
+        }
+        for (IWaystone waystone : waystones) {
+            buffer.putInt(dimensionIndices.get(waystone.getDimension()));
+        }
+        for (IWaystone waystone : waystones) {
+            buffer.putLong(waystone.getPos().toLong());
+        }
+        for (IWaystone waystone : waystones) {
+            buffer.put(getFlags(waystone));
+        }
+        for (IWaystone waystone : waystones) {
+            UUID ownerUid = waystone.getOwnerUid();
+            buffer.putLong(ownerUid != null ? ownerUid.getMostSignificantBits() : 0);
+        }
+        for (IWaystone waystone : waystones) {
+            UUID ownerUid = waystone.getOwnerUid();
+            buffer.putLong(ownerUid != null ? ownerUid.getLeastSignificantBits() : 0);
+        }
+        for (byte[] name : names) {
+            buffer.putInt(name.length);
+            buffer.put(name);
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    public static Snapshot decode(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 12 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a waystones storage file");
+        }
+
+        int version = buffer.getInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported waystones storage version " + version);
+        }
+
+        long generation = version >= 2 ? buffer.getLong() : 0;
+        int count = buffer.getInt();
+        int dimensionCount = buffer.getInt();
+        List<RegistryKey<World>> dimensions = new ArrayList<>(dimensionCount);
+        for (int i = 0; i < dimensionCount; i++) {
+            ResourceLocation dimension = new ResourceLocation(readString(buffer));
+            dimensions.add(RegistryKey.getOrCreateKey(Registry.WORLD_KEY, dimension));
+        }
+
+        long[] uidMost = readLongs(buffer, count);
+        long[] uidLeast = readLongs(buffer, count);
+        int[] dimensionIndices = new int[count];
+        for (int i = 0; i < count; i++) {
+            dimensionIndices[i] = buffer.getInt();
+        }
+        long[] positions = readLongs(buffer, count);
+        byte[] flags = new byte[count];
+        buffer.get(flags);
+        long[] ownerMost = readLongs(buffer, count);
+        long[] ownerLeast = readLongs(buffer, count);
+
+        List<Waystone> waystones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UUID ownerUid = (flags[i] & FLAG_HAS_OWNER) != 0 ? new UUID(ownerMost[i], ownerLeast[i]) : null;
+            boolean wasGenerated = (flags[i] & FLAG_WAS_GENERATED) != 0;
+            Waystone waystone = new Waystone(new UUID(uidMost[i], uidLeast[i]), dimensions.get(dimensionIndices[i]), BlockPos.fromLong(positions[i]), wasGenerated, ownerUid);
+            waystone.setName(readString(buffer));
+            waystone.setGlobal((flags[i] & FLAG_GLOBAL) != 0);
+            waystones.add(waystone);
+        }
+
+        return new Snapshot(generation, waystones);
+    }
+
+    private static ByteBuffer readFully(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // Keep reading until the whole file is in memory
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    private static byte getFlags(IWaystone waystone) {
+        byte flags = 0;
+        if (waystone.wasGenerated()) {
+            flags |= FLAG_WAS_GENERATED;
+        }
+        if (waystone.isGlobal()) {
+            flags |= FLAG_GLOBAL;
+        }
+        if (waystone.getOwnerUid() != null) {
+            flags |= FLAG_HAS_OWNER;
+        }
+        return flags;
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static long[] readLongs(ByteBuffer buffer, int count) {
+        long[] result = new long[count];
+        buffer.asLongBuffer().get(result);
+        buffer.position(buffer.position() + count * 8);
+        return result;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static class Snapshot {
+        private final long generation;
+        private List<Waystone> waystones;
+        private boolean changeLogDamaged;
+
+        public Snapshot(long generation, List<Waystone> waystones) {
+            this.generation = generation;
+            this.waystones = waystones;
+        }
+
+        public long getGeneration() {
+            return generation;
+        }
+
+        public List<Waystone> getWaystones() {
+            return waystones;
+        }
+
+        public boolean isChangeLogDamaged() {
+            return changeLogDamaged;
+        }
+    }
+}
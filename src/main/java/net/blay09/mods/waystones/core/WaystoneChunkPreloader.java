@@ -0,0 +1,87 @@
+package net.blay09.mods.waystones.core;
+
+import net.blay09.mods.waystones.api.IWaystone;
+import net.blay09.mods.waystones.config.WaystonesConfig;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraft.world.server.TicketType;
+
+import java.util.*;
+
+/**
+ * Loads the destination chunk of a warp item while it is being charged, so that the chunk is ready once the teleport fires.
+ */
+public class WaystoneChunkPreloader {
+
+    public static final TicketType<ChunkPos> PRELOAD_TICKET = TicketType.create("waystones_preload", Comparator.comparingLong(ChunkPos::asLong));
+
+    private static final int EXPIRY_GRACE_TICKS = 20;
+
+    private static final Map<UUID, Preload> preloads = new HashMap<>();
+
+    public static void preload(ServerPlayerEntity player, IWaystone waystone, int useDuration) {
+        if (!WaystonesConfig.getSnapshot().preloadChunksWhileCharging || !waystone.isValid()) {
+            return;
+        }
+
+        ServerWorld targetWorld = Objects.requireNonNull(player.getServer()).getWorld(waystone.getDimension());
+        if (targetWorld == null) {
+            return;
+        }
+
+        release(player);
+
+        Preload preload = new Preload(targetWorld, new ChunkPos(waystone.getPos()), useDuration + EXPIRY_GRACE_TICKS);
+        targetWorld.getChunkProvider().registerTicket(PRELOAD_TICKET, preload.chunkPos, 1, preload.chunkPos);
+        preloads.put(player.getUniqueID(), preload);
+    }
+
+    public static void release(ServerPlayerEntity player) {
+        release(player.getUniqueID());
+    }
+
+    public static void release(UUID playerId) {
+        Preload preload = preloads.remove(playerId);
+        if (preload != null) {
+            preload.releaseTicket();
+        }
+    }
+
+    public static void clear() {
+        preloads.clear();
+    }
+
+    public static void tick(MinecraftServer server) {
+        if (preloads.isEmpty()) {
+            return;
+        }
+
+        // Safety net in case the use of the item ended without us being notified
+        Iterator<Preload> it = preloads.values().iterator();
+        while (it.hasNext()) {
+            Preload preload = it.next();
+            if (--preload.ticksLeft <= 0) {
+                preload.releaseTicket();
+                it.remove();
+            }
+        }
+    }
+
+    private static class Preload {
+        private final ServerWorld targetWorld;
+        private final ChunkPos chunkPos;
+        private int ticksLeft;
+
+        private Preload(ServerWorld targetWorld, ChunkPos chunkPos, int ticksLeft) {
+            this.targetWorld = targetWorld;
+            this.chunkPos = chunkPos;
+            this.ticksLeft = ticksLeft;
+        }
+
+        private void releaseTicket() {
+            targetWorld.getChunkProvider().releaseTicket(PRELOAD_TICKET, chunkPos, 1, chunkPos);
+        }
+    }
+}
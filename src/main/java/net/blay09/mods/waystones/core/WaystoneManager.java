@@ -2,6 +2,7 @@ package net.blay09.mods.waystones.core;
 
 import net.blay09.mods.waystones.Waystones;
 import net.blay09.mods.waystones.api.IWaystone;
+import net.blay09.mods.waystones.config.WaystonesConfig;
 import net.blay09.mods.waystones.tileentity.WaystoneTileEntity;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.INBT;
@@ -20,38 +21,172 @@ import net.minecraft.world.storage.DimensionSavedDataManager;
 import net.minecraft.world.storage.WorldSavedData;
 import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.fml.server.ServerLifecycleHooks;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
 public class WaystoneManager extends WorldSavedData {
 
     private static final String DATA_NAME = Waystones.MOD_ID;
     private static final String TAG_WAYSTONES = "Waystones";
+    private static final String TAG_STORAGE = "Storage";
+    private static final String STORAGE_BINARY = "binary";
+    private static final Logger logger = LogManager.getLogger();
+    private static final AtomicLong generation = new AtomicLong();
     private static final WaystoneManager clientStorageCopy = new WaystoneManager();
+    private static volatile WaystoneManager serverInstance;
 
-    private final Map<UUID, IWaystone> waystones = new HashMap<>();
+    private final Map<UUID, IWaystone> waystones = new ConcurrentHashMap<>();
+    private final Set<IWaystone> pendingWaystones = ConcurrentHashMap.newKeySet();
+    private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+    private final WaystoneSpatialIndex spatialIndex = new WaystoneSpatialIndex();
+    private final WaystoneNameIndex nameIndex = new WaystoneNameIndex();
+    private final Map<UUID, IWaystone> globalWaystones = new LinkedHashMap<>();
+    private List<IWaystone> globalWaystonesView;
+    private final Set<UUID> dirtyWaystones = new HashSet<>();
+    private boolean snapshotRequired = true;
+    private boolean binaryStorageReadFailed;
+    private long snapshotGeneration;
+    private int changeLogSize;
 
     public WaystoneManager() {
         super(DATA_NAME);
+        generation.incrementAndGet();
     }
 
     public void addWaystone(IWaystone waystone) {
         waystones.put(waystone.getWaystoneUid(), waystone);
-        markDirty();
+        generation.incrementAndGet();
+        if (isOnServerThread()) {
+            spatialIndex.add(waystone);
+            markDirty(waystone);
+        } else {
+            // World gen decorates chunks on worker threads. The waystone can already be looked up, but the indices are only updated once
+            // the server thread gets to it.
+            pendingWaystones.add(waystone);
+            pendingTasks.add(() -> {
+                if (pendingWaystones.remove(waystone) && waystones.get(waystone.getWaystoneUid()) == waystone) {
+                    spatialIndex.add(waystone);
+                    markDirty(waystone);
+                }
+            });
+        }
+    }
+
+    /**
+     * Applies changes that were made from other threads to the indices and the save data. Must be called on the server thread.
+     */
+    public void drainPendingTasks() {
+        Runnable task;
+        while ((task = pendingTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private boolean isOnServerThread() {
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        return this == clientStorageCopy || server == null || server.isOnExecutionThread();
+    }
+
+    private void runOnServerThread(Runnable task) {
+        if (isOnServerThread()) {
+            task.run();
+        } else {
+            pendingTasks.add(task);
+        }
     }
 
     public void updateWaystone(IWaystone waystone) {
-        Waystone mutableWaystone = (Waystone) waystones.getOrDefault(waystone.getWaystoneUid(), waystone);
-        mutableWaystone.setName(waystone.getName());
-        mutableWaystone.setGlobal(waystone.isGlobal());
-        waystones.put(waystone.getWaystoneUid(), mutableWaystone);
-        markDirty();
+        runOnServerThread(() -> {
+            Waystone mutableWaystone = (Waystone) waystones.getOrDefault(waystone.getWaystoneUid(), waystone);
+            mutableWaystone.setName(waystone.getName());
+            mutableWaystone.setGlobal(waystone.isGlobal());
+            if (waystones.put(waystone.getWaystoneUid(), mutableWaystone) != mutableWaystone) {
+                generation.incrementAndGet();
+            }
+            spatialIndex.update(mutableWaystone);
+            markDirty(mutableWaystone);
+        });
+    }
+
+    public void moveWaystone(Waystone waystone, RegistryKey<World> dimension, BlockPos pos) {
+        runOnServerThread(() -> {
+            boolean hasMoved = waystone.getDimension() != dimension || !waystone.getPos().equals(pos);
+            waystone.setDimension(dimension);
+            waystone.setPos(pos);
+            if (hasMoved && waystones.get(waystone.getWaystoneUid()) == waystone && !pendingWaystones.contains(waystone)) {
+                spatialIndex.update(waystone);
+                markDirty(waystone);
+            }
+        });
     }
 
     public void removeWaystone(IWaystone waystone) {
         waystones.remove(waystone.getWaystoneUid());
-        markDirty();
+        pendingWaystones.remove(waystone);
+        generation.incrementAndGet();
+        runOnServerThread(() -> {
+            spatialIndex.remove(waystone.getWaystoneUid());
+            markDirty(waystone);
+        });
+    }
+
+    /**
+     * Marks a single waystone as changed. With binary storage enabled, only changed waystones are written on the next save.
+     */
+    public void markDirty(IWaystone waystone) {
+        runOnServerThread(() -> {
+            dirtyWaystones.add(waystone.getWaystoneUid());
+            nameIndex.update(waystone.getWaystoneUid(), waystones.get(waystone.getWaystoneUid()));
+            updateGlobalState(waystone.getWaystoneUid());
+            setDirty(true);
+        });
+    }
+
+    /**
+     * Marks the entire registry as changed, causing the next save to write a full snapshot.
+     */
+    @Override
+    public void markDirty() {
+        runOnServerThread(() -> {
+            snapshotRequired = true;
+            rebuildIndices();
+            super.markDirty();
+        });
+    }
+
+    private void updateGlobalState(UUID waystoneUid) {
+        IWaystone waystone = waystones.get(waystoneUid);
+        boolean isGlobal = waystone != null && waystone.isGlobal();
+        boolean wasGlobal = globalWaystones.containsKey(waystoneUid);
+        if (isGlobal && (!wasGlobal || globalWaystones.get(waystoneUid) != waystone)) {
+            globalWaystones.put(waystoneUid, waystone);
+            globalWaystonesView = null;
+        } else if (!isGlobal && wasGlobal) {
+            globalWaystones.remove(waystoneUid);
+            globalWaystonesView = null;
+        }
+    }
+
+    private void rebuildIndices() {
+        nameIndex.clear();
+        globalWaystones.clear();
+        for (IWaystone waystone : waystones.values()) {
+            nameIndex.update(waystone.getWaystoneUid(), waystone);
+            if (waystone.isGlobal()) {
+                globalWaystones.put(waystone.getWaystoneUid(), waystone);
+            }
+        }
+        globalWaystonesView = null;
     }
 
     public Optional<IWaystone> getWaystoneAt(IBlockReader world, BlockPos pos) {
@@ -68,54 +203,244 @@ public class WaystoneManager extends WorldSavedData {
     }
 
     public Optional<IWaystone> findWaystoneByName(String name) {
-        return waystones.values().stream().filter(it -> it.getName().equals(name)).findFirst();
+        return findWaystoneByName(name, false);
+    }
+
+    public Optional<IWaystone> findWaystoneByName(String name, boolean ignoreCase) {
+        Optional<IWaystone> result = nameIndex.findByName(name, ignoreCase);
+        if (!result.isPresent()) {
+            for (IWaystone waystone : pendingWaystones) {
+                if (ignoreCase ? waystone.getName().equalsIgnoreCase(name) : waystone.getName().equals(name)) {
+                    return Optional.of(waystone);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    public List<IWaystone> findWaystonesByNamePrefix(String prefix, boolean ignoreCase) {
+        List<IWaystone> result = nameIndex.findByNamePrefix(prefix, ignoreCase);
+        for (IWaystone waystone : pendingWaystones) {
+            if (waystone.getName().regionMatches(ignoreCase, 0, prefix, 0, prefix.length())) {
+                result.add(waystone);
+            }
+        }
+
+        return result;
+    }
+
+    public List<IWaystone> getWaystonesInRadius(RegistryKey<World> dimension, BlockPos pos, double radius) {
+        List<IWaystone> result = spatialIndex.getWaystonesInRadius(dimension, pos, radius);
+        if (pendingWaystones.isEmpty()) {
+            return result;
+        }
+
+        result = new ArrayList<>(result);
+        for (IWaystone waystone : pendingWaystones) {
+            if (waystone.getDimension() == dimension && waystone.getPos().distanceSq(pos) <= radius * radius) {
+                result.add(waystone);
+            }
+        }
+
+        return result;
+    }
+
+    public Optional<IWaystone> getNearestWaystone(RegistryKey<World> dimension, BlockPos pos, Predicate<IWaystone> filter) {
+        Optional<IWaystone> nearest = spatialIndex.getNearestWaystone(dimension, pos, filter);
+        double nearestDistSq = nearest.map(it -> it.getPos().distanceSq(pos)).orElse(Double.MAX_VALUE);
+        for (IWaystone waystone : pendingWaystones) {
+            double distSq = waystone.getPos().distanceSq(pos);
+            if (waystone.getDimension() == dimension && distSq < nearestDistSq && filter.test(waystone)) {
+                nearest = Optional.of(waystone);
+                nearestDistSq = distSq;
+            }
+        }
+
+        return nearest;
     }
 
     public List<IWaystone> getGlobalWaystones() {
-        return waystones.values().stream().filter(IWaystone::isGlobal).collect(Collectors.toList());
+        if (globalWaystonesView == null) {
+            globalWaystonesView = Collections.unmodifiableList(new ArrayList<>(globalWaystones.values()));
+        }
+
+        return globalWaystonesView;
     }
 
     @Override
     public void read(CompoundNBT tagCompound) {
+        if (STORAGE_BINARY.equals(tagCompound.getString(TAG_STORAGE))) {
+            MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+            if (server != null) {
+                try {
+                    readBinaryStorage(server);
+                } catch (IOException e) {
+                    // Leave the binary storage alone until it can be read again, otherwise the next save would overwrite it with an empty registry
+                    logger.error("Failed to load waystones from binary storage, it will not be written to until it loads again", e);
+                    binaryStorageReadFailed = true;
+                }
+            }
+        }
+
+        // Also pick up any waystones still stored in NBT so that switching storage backends migrates them
         ListNBT tagList = tagCompound.getList(TAG_WAYSTONES, Constants.NBT.TAG_COMPOUND);
+        if (!tagList.isEmpty()) {
+            snapshotRequired = true;
+        }
         for (INBT tag : tagList) {
-            CompoundNBT compound = (CompoundNBT) tag;
-            UUID waystoneUid = NBTUtil.readUniqueId(Objects.requireNonNull(compound.get("WaystoneUid")));
-            String name = compound.getString("Name");
-            RegistryKey<World> dimensionType = RegistryKey.getOrCreateKey(Registry.WORLD_KEY, new ResourceLocation(compound.getString("World")));
-            BlockPos pos = NBTUtil.readBlockPos(compound.getCompound("BlockPos"));
-            boolean wasGenerated = compound.getBoolean("WasGenerated");
-            UUID ownerUid = compound.contains("OwnerUid") ? NBTUtil.readUniqueId(Objects.requireNonNull(compound.get("OwnerUid"))) : null;
-            Waystone waystone = new Waystone(waystoneUid, dimensionType, pos, wasGenerated, ownerUid);
-            waystone.setName(name);
-            waystone.setGlobal(compound.getBoolean("IsGlobal"));
-            waystones.put(waystoneUid, waystone);
+            Waystone waystone = readWaystone((CompoundNBT) tag);
+            waystones.put(waystone.getWaystoneUid(), waystone);
+            spatialIndex.add(waystone);
         }
+
+        rebuildIndices();
+        generation.incrementAndGet();
     }
 
     @Override
     public CompoundNBT write(CompoundNBT tagCompound) {
+        drainPendingTasks();
+
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (WaystonesConfig.COMMON.binaryStorage.get() && server != null && !binaryStorageReadFailed) {
+            try {
+                writeBinaryStorage(server);
+                tagCompound.putString(TAG_STORAGE, STORAGE_BINARY);
+                return tagCompound;
+            } catch (IOException e) {
+                logger.error("Failed to save waystones to binary storage, falling back to NBT", e);
+            }
+        }
+
+        // The binary storage (if any) is now out of date, so it needs a full snapshot once it is used again
+        dirtyWaystones.clear();
+        snapshotRequired = true;
+
         ListNBT tagList = new ListNBT();
         for (IWaystone waystone : waystones.values()) {
-            CompoundNBT compound = new CompoundNBT();
-            compound.put("WaystoneUid", NBTUtil.func_240626_a_(waystone.getWaystoneUid())); // writeUniqueId
-            compound.putString("Name", waystone.getName());
-            compound.putString("World", waystone.getDimension().getLocation().toString());
-            compound.put("BlockPos", NBTUtil.writeBlockPos(waystone.getPos()));
-            compound.putBoolean("WasGenerated", waystone.wasGenerated());
-            if (waystone.getOwnerUid() != null) {
-                compound.put("OwnerUid", NBTUtil.func_240626_a_(waystone.getOwnerUid())); // writeUniqueId
-            }
-            compound.putBoolean("IsGlobal", waystone.isGlobal());
-            tagList.add(compound);
+            tagList.add(writeWaystone(waystone));
         }
         tagCompound.put(TAG_WAYSTONES, tagList);
+        if (binaryStorageReadFailed) {
+            // Keep pointing at the binary storage so it is retried on the next load, the NBT copy is merged on top of it
+            tagCompound.putString(TAG_STORAGE, STORAGE_BINARY);
+        }
         return tagCompound;
     }
 
+    private void readBinaryStorage(MinecraftServer server) throws IOException {
+        Path file = WaystoneBinaryStorage.getStorageFile(server);
+        WaystoneBinaryStorage.Snapshot snapshot = WaystoneBinaryStorage.read(file);
+        snapshotGeneration = snapshot.getGeneration();
+        snapshotRequired = false;
+
+        Path changeLogFile = WaystoneBinaryStorage.getChangeLogFile(file);
+        if (Files.exists(changeLogFile)) {
+            // Compact the change log on the next save if it contains changes, is left over from an older snapshot or ends in garbage that
+            // later appends would otherwise land behind
+            int records = WaystoneBinaryStorage.replayChangeLog(changeLogFile, snapshot);
+            if (records != 0 || snapshot.isChangeLogDamaged()) {
+                if (snapshot.isChangeLogDamaged()) {
+                    logger.warn("Waystones change log is truncated or damaged, recovered {} records", records);
+                }
+                snapshotRequired = true;
+                setDirty(true);
+            }
+        }
+
+        for (Waystone waystone : snapshot.getWaystones()) {
+            waystones.put(waystone.getWaystoneUid(), waystone);
+            spatialIndex.add(waystone);
+        }
+    }
+
+    private void writeBinaryStorage(MinecraftServer server) throws IOException {
+        Path file = WaystoneBinaryStorage.getStorageFile(server);
+        Path changeLogFile = WaystoneBinaryStorage.getChangeLogFile(file);
+        int compactionThreshold = WaystonesConfig.COMMON.changeLogCompactionThreshold.get();
+        boolean isShuttingDown = !server.isServerRunning();
+        if (snapshotRequired || isShuttingDown || changeLogSize + dirtyWaystones.size() > compactionThreshold || !Files.exists(file)) {
+            snapshotGeneration++;
+            if (Files.exists(file)) {
+                Files.copy(file, WaystoneBinaryStorage.getBackupFile(file), StandardCopyOption.REPLACE_EXISTING);
+            }
+            WaystoneBinaryStorage.write(file, waystones.values(), snapshotGeneration);
+            Files.deleteIfExists(changeLogFile);
+            changeLogSize = 0;
+            snapshotRequired = false;
+        } else if (!dirtyWaystones.isEmpty()) {
+            List<IWaystone> updated = new ArrayList<>();
+            List<UUID> removed = new ArrayList<>();
+            for (UUID waystoneUid : dirtyWaystones) {
+                IWaystone waystone = waystones.get(waystoneUid);
+                if (waystone != null) {
+                    updated.add(waystone);
+                } else {
+                    removed.add(waystoneUid);
+                }
+            }
+            WaystoneBinaryStorage.appendChangeLog(changeLogFile, snapshotGeneration, updated, removed);
+            changeLogSize += dirtyWaystones.size();
+        }
+
+        dirtyWaystones.clear();
+    }
+
+    public static Waystone readWaystone(CompoundNBT compound) {
+        UUID waystoneUid = NBTUtil.readUniqueId(Objects.requireNonNull(compound.get("WaystoneUid")));
+        String name = compound.getString("Name");
+        RegistryKey<World> dimensionType = RegistryKey.getOrCreateKey(Registry.WORLD_KEY, new ResourceLocation(compound.getString("World")));
+        BlockPos pos = NBTUtil.readBlockPos(compound.getCompound("BlockPos"));
+        boolean wasGenerated = compound.getBoolean("WasGenerated");
+        UUID ownerUid = compound.contains("OwnerUid") ? NBTUtil.readUniqueId(Objects.requireNonNull(compound.get("OwnerUid"))) : null;
+        Waystone waystone = new Waystone(waystoneUid, dimensionType, pos, wasGenerated, ownerUid);
+        waystone.setName(name);
+        waystone.setGlobal(compound.getBoolean("IsGlobal"));
+        return waystone;
+    }
+
+    public static CompoundNBT writeWaystone(IWaystone waystone) {
+        CompoundNBT compound = new CompoundNBT();
+        compound.put("WaystoneUid", NBTUtil.func_240626_a_(waystone.getWaystoneUid())); // writeUniqueId
+        compound.putString("Name", waystone.getName());
+        compound.putString("World", waystone.getDimension().getLocation().toString());
+        compound.put("BlockPos", NBTUtil.writeBlockPos(waystone.getPos()));
+        compound.putBoolean("WasGenerated", waystone.wasGenerated());
+        if (waystone.getOwnerUid() != null) {
+            compound.put("OwnerUid", NBTUtil.func_240626_a_(waystone.getOwnerUid())); // writeUniqueId
+        }
+        compound.putBoolean("IsGlobal", waystone.isGlobal());
+        return compound;
+    }
+
+    /**
+     * Returns a counter that changes whenever waystones are added to or removed from any waystone manager, so that resolved waystones can be cached
+     * until then.
+     */
+    public static long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Loads the saved data on the server thread as soon as the overworld exists, so world gen workers never have to create it.
+     */
+    public static void load(ServerWorld overworld) {
+        serverInstance = overworld.getSavedData().getOrCreate(WaystoneManager::new, DATA_NAME);
+    }
+
+    public static void unload() {
+        serverInstance = null;
+    }
+
     public static WaystoneManager get() {
         MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
         if (server != null) {
+            WaystoneManager instance = serverInstance;
+            if (instance != null) {
+                return instance;
+            }
+
             ServerWorld overworld = server.getWorld(World.OVERWORLD);
             DimensionSavedDataManager storage = overworld.getSavedData();
             return storage.getOrCreate(WaystoneManager::new, DATA_NAME);
@@ -0,0 +1,85 @@
+package net.blay09.mods.waystones.core;
+
+import net.blay09.mods.waystones.api.IWaystone;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Sorted index of waystone names, supporting exact, case-insensitive and prefix lookups.
+ */
+public class WaystoneNameIndex {
+
+    private final NavigableMap<String, List<IWaystone>> byName = new TreeMap<>();
+    private final NavigableMap<String, List<IWaystone>> byLowerCaseName = new TreeMap<>();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+
+    /**
+     * Indexes the waystone under its current name, or removes it from the index if it is null.
+     */
+    public void update(UUID waystoneUid, @Nullable IWaystone waystone) {
+        Entry entry = entries.get(waystoneUid);
+        String name = waystone != null ? waystone.getName() : null;
+        if (entry != null) {
+            if (entry.waystone == waystone && entry.name.equals(name)) {
+                return;
+            }
+
+            removeFrom(byName, entry.name, entry.waystone);
+            removeFrom(byLowerCaseName, toLowerCase(entry.name), entry.waystone);
+            entries.remove(waystoneUid);
+        }
+
+        if (waystone != null && name != null) {
+            byName.computeIfAbsent(name, it -> new ArrayList<>(1)).add(waystone);
+            byLowerCaseName.computeIfAbsent(toLowerCase(name), it -> new ArrayList<>(1)).add(waystone);
+            entries.put(waystoneUid, new Entry(waystone, name));
+        }
+    }
+
+    public void clear() {
+        byName.clear();
+        byLowerCaseName.clear();
+        entries.clear();
+    }
+
+    public Optional<IWaystone> findByName(String name, boolean ignoreCase) {
+        List<IWaystone> waystones = ignoreCase ? byLowerCaseName.get(toLowerCase(name)) : byName.get(name);
+        return waystones != null ? Optional.of(waystones.get(0)) : Optional.empty();
+    }
+
+    public List<IWaystone> findByNamePrefix(String prefix, boolean ignoreCase) {
+        NavigableMap<String, List<IWaystone>> map = ignoreCase ? byLowerCaseName : byName;
+        String key = ignoreCase ? toLowerCase(prefix) : prefix;
+        List<IWaystone> result = new ArrayList<>();
+        for (Map.Entry<String, List<IWaystone>> entry : map.tailMap(key, true).entrySet()) {
+            if (!entry.getKey().startsWith(key)) {
+                break;
+            }
+            result.addAll(entry.getValue());
+        }
+
+        return result;
+    }
+
+    private static void removeFrom(Map<String, List<IWaystone>> map, String key, IWaystone waystone) {
+        List<IWaystone> waystones = map.get(key);
+        if (waystones != null && waystones.remove(waystone) && waystones.isEmpty()) {
+            map.remove(key);
+        }
+    }
+
+    private static String toLowerCase(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static class Entry {
+        private final IWaystone waystone;
+        private final String name;
+
+        private Entry(IWaystone waystone, String name) {
+            this.waystone = waystone;
+            this.name = name;
+        }
+    }
+}
@@ -2,15 +2,20 @@ package net.blay09.mods.waystones.core;
 
 import net.blay09.mods.waystones.api.IWaystone;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.RegistryKey;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
 
 import java.util.UUID;
 
 public class WaystoneProxy implements IWaystone {
 
     private final UUID waystoneUid;
+    private MinecraftServer resolvedServer;
+    private WaystoneManager resolvedManager;
+    private long resolvedGeneration;
     private IWaystone backingWaystone;
 
     public WaystoneProxy(UUID waystoneUid) {
@@ -19,12 +24,22 @@ public class WaystoneProxy implements IWaystone {
 
     @Override
     public boolean isValid() {
-        return WaystoneManager.get().getWaystoneById(waystoneUid).isPresent();
+        return getBackingWaystone() != InvalidWaystone.INSTANCE;
     }
 
     public IWaystone getBackingWaystone() {
-        if (backingWaystone == null) {
-            backingWaystone = WaystoneManager.get().getWaystoneById(waystoneUid).orElse(InvalidWaystone.INSTANCE);
+        // Only resolve again if waystones have been added or removed since, or if we're looking at a different server now
+        long generation = WaystoneManager.getGeneration();
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (resolvedManager == null || resolvedServer != server) {
+            resolvedManager = WaystoneManager.get();
+            resolvedServer = server;
+            backingWaystone = null;
+        }
+
+        if (backingWaystone == null || resolvedGeneration != generation) {
+            backingWaystone = resolvedManager.getWaystoneById(waystoneUid).orElse(InvalidWaystone.INSTANCE);
+            resolvedGeneration = generation;
         }
 
         return backingWaystone;
@@ -0,0 +1,185 @@
+package net.blay09.mods.waystones.core;
+
+import net.blay09.mods.waystones.api.IWaystone;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Grid of waystones per dimension, bucketed into square cells of {@link #CELL_SIZE} blocks.
+ */
+public class WaystoneSpatialIndex {
+
+    private static final int CELL_SHIFT = 6;
+    public static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+    private final Map<RegistryKey<World>, DimensionGrid> grids = new HashMap<>();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+
+    public void add(IWaystone waystone) {
+        remove(waystone.getWaystoneUid());
+        Entry entry = new Entry(waystone, waystone.getDimension(), getCellKey(waystone.getPos()));
+        grids.computeIfAbsent(entry.dimension, it -> new DimensionGrid()).add(entry.cellKey, waystone);
+        entries.put(waystone.getWaystoneUid(), entry);
+    }
+
+    public void update(IWaystone waystone) {
+        Entry entry = entries.get(waystone.getWaystoneUid());
+        if (entry == null || entry.waystone != waystone || entry.dimension != waystone.getDimension() || entry.cellKey != getCellKey(waystone.getPos())) {
+            add(waystone);
+        }
+    }
+
+    public void remove(UUID waystoneUid) {
+        Entry entry = entries.remove(waystoneUid);
+        if (entry != null) {
+            DimensionGrid grid = grids.get(entry.dimension);
+            if (grid != null) {
+                grid.remove(entry.cellKey, entry.waystone);
+                if (grid.size == 0) {
+                    grids.remove(entry.dimension);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        grids.clear();
+        entries.clear();
+    }
+
+    public List<IWaystone> getWaystonesInRadius(RegistryKey<World> dimension, BlockPos pos, double radius) {
+        DimensionGrid grid = grids.get(dimension);
+        if (grid == null || radius < 0) {
+            return Collections.emptyList();
+        }
+
+        double radiusSq = radius * radius;
+        List<IWaystone> result = new ArrayList<>();
+        int minCellX = (pos.getX() - (int) Math.ceil(radius)) >> CELL_SHIFT;
+        int maxCellX = (pos.getX() + (int) Math.ceil(radius)) >> CELL_SHIFT;
+        int minCellZ = (pos.getZ() - (int) Math.ceil(radius)) >> CELL_SHIFT;
+        int maxCellZ = (pos.getZ() + (int) Math.ceil(radius)) >> CELL_SHIFT;
+        long cellCount = (long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1);
+        if (cellCount > grid.cells.size()) {
+            // Huge radius compared to how populated this dimension is - visiting the occupied cells is cheaper
+            for (List<IWaystone> cell : grid.cells.values()) {
+                collectInRadius(cell, pos, radiusSq, result);
+            }
+        } else {
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                    List<IWaystone> cell = grid.cells.get(ChunkPos.asLong(cellX, cellZ));
+                    if (cell != null) {
+                        collectInRadius(cell, pos, radiusSq, result);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    public Optional<IWaystone> getNearestWaystone(RegistryKey<World> dimension, BlockPos pos, Predicate<IWaystone> filter) {
+        DimensionGrid grid = grids.get(dimension);
+        if (grid == null) {
+            return Optional.empty();
+        }
+
+        int originCellX = pos.getX() >> CELL_SHIFT;
+        int originCellZ = pos.getZ() >> CELL_SHIFT;
+        int maxRing = Math.max(
+                Math.max(Math.abs(grid.minCellX - originCellX), Math.abs(grid.maxCellX - originCellX)),
+                Math.max(Math.abs(grid.minCellZ - originCellZ), Math.abs(grid.maxCellZ - originCellZ)));
+
+        IWaystone nearest = null;
+        double nearestDistSq = Double.MAX_VALUE;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Anything in this ring or further out is at least (ring - 1) full cells away
+            double ringDist = Math.max(0, ring - 1) * (double) CELL_SIZE;
+            if (nearest != null && ringDist * ringDist > nearestDistSq) {
+                break;
+            }
+
+            for (int cellX = originCellX - ring; cellX <= originCellX + ring; cellX++) {
+                boolean isEdgeColumn = cellX == originCellX - ring || cellX == originCellX + ring;
+                int stepZ = isEdgeColumn ? 1 : ring * 2;
+                for (int cellZ = originCellZ - ring; cellZ <= originCellZ + ring; cellZ += Math.max(1, stepZ)) {
+                    List<IWaystone> cell = grid.cells.get(ChunkPos.asLong(cellX, cellZ));
+                    if (cell == null) {
+                        continue;
+                    }
+
+                    for (IWaystone waystone : cell) {
+                        double distSq = waystone.getPos().distanceSq(pos);
+                        if (distSq < nearestDistSq && filter.test(waystone)) {
+                            nearest = waystone;
+                            nearestDistSq = distSq;
+                        }
+                    }
+                }
+            }
+        }
+
+        return Optional.ofNullable(nearest);
+    }
+
+    private static void collectInRadius(List<IWaystone> cell, BlockPos pos, double radiusSq, List<IWaystone> result) {
+        for (IWaystone waystone : cell) {
+            if (waystone.getPos().distanceSq(pos) <= radiusSq) {
+                result.add(waystone);
+            }
+        }
+    }
+
+    private static long getCellKey(BlockPos pos) {
+        return ChunkPos.asLong(pos.getX() >> CELL_SHIFT, pos.getZ() >> CELL_SHIFT);
+    }
+
+    private static class Entry {
+        private final IWaystone waystone;
+        private final RegistryKey<World> dimension;
+        private final long cellKey;
+
+        private Entry(IWaystone waystone, RegistryKey<World> dimension, long cellKey) {
+            this.waystone = waystone;
+            this.dimension = dimension;
+            this.cellKey = cellKey;
+        }
+    }
+
+    private static class DimensionGrid {
+        private final Map<Long, List<IWaystone>> cells = new HashMap<>();
+        private int size;
+        private int minCellX = Integer.MAX_VALUE;
+        private int maxCellX = Integer.MIN_VALUE;
+        private int minCellZ = Integer.MAX_VALUE;
+        private int maxCellZ = Integer.MIN_VALUE;
+
+        private void add(long cellKey, IWaystone waystone) {
+            cells.computeIfAbsent(cellKey, it -> new ArrayList<>(1)).add(waystone);
+            size++;
+
+            int cellX = ChunkPos.getX(cellKey);
+            int cellZ = ChunkPos.getZ(cellKey);
+            minCellX = Math.min(minCellX, cellX);
+            maxCellX = Math.max(maxCellX, cellX);
+            minCellZ = Math.min(minCellZ, cellZ);
+            maxCellZ = Math.max(maxCellZ, cellZ);
+        }
+
+        private void remove(long cellKey, IWaystone waystone) {
+            List<IWaystone> cell = cells.get(cellKey);
+            if (cell != null && cell.remove(waystone)) {
+                size--;
+                if (cell.isEmpty()) {
+                    cells.remove(cellKey);
+                }
+            }
+        }
+    }
+}
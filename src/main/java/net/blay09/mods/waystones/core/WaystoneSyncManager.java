@@ -2,16 +2,20 @@ package net.blay09.mods.waystones.core;
 
 import net.blay09.mods.waystones.api.IWaystone;
 import net.blay09.mods.waystones.network.NetworkHandler;
+import net.blay09.mods.waystones.network.message.PlayerKnownWaystonesDeltaMessage;
 import net.blay09.mods.waystones.network.message.PlayerKnownWaystonesMessage;
 import net.blay09.mods.waystones.network.message.PlayerWaystoneCooldownsMessage;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraftforge.fml.server.ServerLifecycleHooks;
 
-import java.util.List;
+import java.util.*;
 
 public class WaystoneSyncManager {
 
+    private static final Map<UUID, Integer> revisions = new HashMap<>();
+    private static long avoidedPackets;
+
     public static void sendKnownWaystonesToAll() {
         List<ServerPlayerEntity> players = ServerLifecycleHooks.getCurrentServer().getPlayerList().getPlayers();
         for (ServerPlayerEntity player : players) {
@@ -21,7 +25,53 @@ public class WaystoneSyncManager {
 
     public static void sendKnownWaystones(PlayerEntity player) {
         List<IWaystone> waystones = PlayerWaystoneManager.getWaystones(player);
-        NetworkHandler.sendTo(new PlayerKnownWaystonesMessage(waystones), player);
+        int revision = revisions.merge(player.getUniqueID(), 1, Integer::sum);
+        NetworkHandler.sendTo(new PlayerKnownWaystonesMessage(revision, waystones), player);
+    }
+
+    public static void sendWaystoneAdded(PlayerEntity player, IWaystone waystone) {
+        NetworkHandler.sendTo(PlayerKnownWaystonesDeltaMessage.added(nextRevision(player), waystone), player);
+    }
+
+    public static void sendWaystoneUpdated(PlayerEntity player, IWaystone waystone) {
+        NetworkHandler.sendTo(PlayerKnownWaystonesDeltaMessage.updated(nextRevision(player), waystone), player);
+    }
+
+    public static void sendWaystoneRemoved(PlayerEntity player, IWaystone waystone) {
+        NetworkHandler.sendTo(PlayerKnownWaystonesDeltaMessage.removed(nextRevision(player), waystone.getWaystoneUid()), player);
+    }
+
+    public static void sendWaystoneOrder(PlayerEntity player) {
+        List<IWaystone> waystones = PlayerWaystoneManager.getWaystones(player);
+        List<UUID> order = new ArrayList<>(waystones.size());
+        for (IWaystone waystone : waystones) {
+            order.add(waystone.getWaystoneUid());
+        }
+        NetworkHandler.sendTo(PlayerKnownWaystonesDeltaMessage.reordered(nextRevision(player), order), player);
+    }
+
+    public static void sendWaystoneUpdatedToAll(IWaystone waystone) {
+        List<ServerPlayerEntity> players = PlayerWaystoneManager.getPlayersWithWaystoneActivated(waystone);
+        countAvoidedPackets(players.size());
+        for (ServerPlayerEntity player : players) {
+            sendWaystoneUpdated(player, waystone);
+        }
+    }
+
+    /**
+     * Counts the packets saved by only notifying interested players, compared to notifying every online player.
+     */
+    static void countAvoidedPackets(int interestedPlayers) {
+        int onlinePlayers = ServerLifecycleHooks.getCurrentServer().getPlayerList().getCurrentPlayerCount();
+        avoidedPackets += Math.max(0, onlinePlayers - interestedPlayers);
+    }
+
+    public static long getAvoidedPacketCount() {
+        return avoidedPackets;
+    }
+
+    public static void resetAvoidedPacketCount() {
+        avoidedPackets = 0;
     }
 
     public static void sendWaystoneCooldowns(PlayerEntity player) {
@@ -29,4 +79,17 @@ public class WaystoneSyncManager {
         long warpStoneCooldownUntil = PlayerWaystoneManager.getWarpStoneCooldownUntil(player);
         NetworkHandler.sendTo(new PlayerWaystoneCooldownsMessage(inventoryButtonCooldownUntil, warpStoneCooldownUntil), player);
     }
+
+    public static void onPlayerLoggedOut(PlayerEntity player) {
+        revisions.remove(player.getUniqueID());
+    }
+
+    /**
+     * Returns the revision the client is expected to be at before applying the next delta, and advances it.
+     */
+    private static int nextRevision(PlayerEntity player) {
+        int revision = revisions.getOrDefault(player.getUniqueID(), 0);
+        revisions.put(player.getUniqueID(), revision + 1);
+        return revision;
+    }
 }
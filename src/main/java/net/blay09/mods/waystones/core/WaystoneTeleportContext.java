@@ -2,6 +2,7 @@ package net.blay09.mods.waystones.core;
 
 import net.blay09.mods.waystones.api.IWaystone;
 import net.minecraft.entity.MobEntity;
+import net.minecraft.item.ItemStack;
 import net.minecraft.util.Direction;
 import net.minecraft.world.server.ServerWorld;
 
@@ -15,6 +16,10 @@ public class WaystoneTeleportContext {
     
     private IWaystone fromWaystone;
 
+    private ItemStack consumedItem = ItemStack.EMPTY;
+    private long previousCooldownUntil;
+    private int chargedXpLevels;
+
     public ServerWorld getTargetWorld() {
         return targetWorld;
     }
@@ -47,4 +52,28 @@ public class WaystoneTeleportContext {
     public void setFromWaystone(@Nullable IWaystone fromWaystone) {
         this.fromWaystone = fromWaystone;
     }
+
+    public ItemStack getConsumedItem() {
+        return consumedItem;
+    }
+
+    public void setConsumedItem(ItemStack consumedItem) {
+        this.consumedItem = consumedItem;
+    }
+
+    public long getPreviousCooldownUntil() {
+        return previousCooldownUntil;
+    }
+
+    public void setPreviousCooldownUntil(long previousCooldownUntil) {
+        this.previousCooldownUntil = previousCooldownUntil;
+    }
+
+    public int getChargedXpLevels() {
+        return chargedXpLevels;
+    }
+
+    public void setChargedXpLevels(int chargedXpLevels) {
+        this.chargedXpLevels = chargedXpLevels;
+    }
 }
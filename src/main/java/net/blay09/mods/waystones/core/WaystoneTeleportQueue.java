@@ -0,0 +1,146 @@
+package net.blay09.mods.waystones.core;
+
+import net.blay09.mods.waystones.api.IWaystone;
+import net.blay09.mods.waystones.config.WaystonesConfig;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraft.world.server.TicketType;
+
+import java.util.*;
+
+/**
+ * Holds teleports whose target chunk is not loaded yet. The chunk is requested through a ticket and the teleport is completed on the first tick it
+ * is available.
+ */
+public class WaystoneTeleportQueue {
+
+    public static final TicketType<ChunkPos> TELEPORT_TICKET = TicketType.create("waystones_teleport", Comparator.comparingLong(ChunkPos::asLong));
+
+    private static final Map<UUID, PendingTeleport> pendingTeleports = new LinkedHashMap<>();
+
+    /**
+     * Queues a teleport whose costs have already been taken and are recorded in the context.
+     */
+    static void enqueue(ServerPlayerEntity player, IWaystone waystone, WarpMode warpMode, WaystoneTeleportContext context, long startTime, long preparedTime) {
+        cancel(player);
+
+        PendingTeleport pendingTeleport = new PendingTeleport(waystone, warpMode, context, startTime, preparedTime);
+        pendingTeleport.targetWorld.getChunkProvider().registerTicket(TELEPORT_TICKET, pendingTeleport.chunkPos, 1, pendingTeleport.chunkPos);
+        pendingTeleports.put(player.getUniqueID(), pendingTeleport);
+    }
+
+    public static boolean isPending(UUID playerId) {
+        return pendingTeleports.containsKey(playerId);
+    }
+
+    /**
+     * Drops the player's pending teleport, if any, and refunds its costs.
+     */
+    public static void cancel(ServerPlayerEntity player) {
+        PendingTeleport pendingTeleport = pendingTeleports.remove(player.getUniqueID());
+        if (pendingTeleport != null) {
+            pendingTeleport.releaseTicket();
+            PlayerWaystoneManager.refundTeleport(player, pendingTeleport.warpMode, pendingTeleport.context);
+        }
+    }
+
+    public static void clear() {
+        for (PendingTeleport pendingTeleport : pendingTeleports.values()) {
+            pendingTeleport.releaseTicket();
+        }
+        pendingTeleports.clear();
+    }
+
+    public static void tick(MinecraftServer server) {
+        if (pendingTeleports.isEmpty()) {
+            return;
+        }
+
+        int timeout = WaystonesConfig.getSnapshot().chunkLoadTimeout;
+        List<Map.Entry<UUID, PendingTeleport>> readyTeleports = new ArrayList<>();
+        Iterator<Map.Entry<UUID, PendingTeleport>> it = pendingTeleports.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, PendingTeleport> entry = it.next();
+            PendingTeleport pendingTeleport = entry.getValue();
+            ServerPlayerEntity player = server.getPlayerList().getPlayerByUUID(entry.getKey());
+            if (player == null) {
+                pendingTeleport.releaseTicket();
+                it.remove();
+            } else if (isLandingAreaLoaded(pendingTeleport.targetWorld, pendingTeleport.waystone.getPos())) {
+                readyTeleports.add(entry);
+                it.remove();
+            } else if (++pendingTeleport.ticksWaited >= timeout) {
+                pendingTeleport.releaseTicket();
+                it.remove();
+                PlayerWaystoneManager.refundTeleport(player, pendingTeleport.warpMode, pendingTeleport.context);
+
+                TranslationTextComponent chatComponent = new TranslationTextComponent("chat.waystones.teleport_timed_out");
+                chatComponent.mergeStyle(TextFormatting.RED);
+                player.sendStatusMessage(chatComponent, false);
+            }
+        }
+
+        // Completing a teleport fires events, so it must not happen while iterating the pending teleports
+        for (Map.Entry<UUID, PendingTeleport> entry : readyTeleports) {
+            PendingTeleport pendingTeleport = entry.getValue();
+            ServerPlayerEntity player = server.getPlayerList().getPlayerByUUID(entry.getKey());
+            try {
+                if (player != null) {
+                    PlayerWaystoneManager.completeDeferredTeleport(player, pendingTeleport.waystone, pendingTeleport.warpMode, pendingTeleport.context,
+                            pendingTeleport.startTime, pendingTeleport.preparedTime, pendingTeleport.ticksWaited);
+                }
+            } finally {
+                pendingTeleport.releaseTicket();
+            }
+        }
+    }
+
+    /**
+     * The landing spot may be on the other side of a chunk border, so all chunks touching the blocks around the waystone have to be loaded.
+     */
+    static boolean isLandingAreaLoaded(ServerWorld world, BlockPos pos) {
+        int minChunkX = (pos.getX() - 1) >> 4;
+        int maxChunkX = (pos.getX() + 1) >> 4;
+        int minChunkZ = (pos.getZ() - 1) >> 4;
+        int maxChunkZ = (pos.getZ() + 1) >> 4;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if (world.getChunkProvider().getChunkNow(chunkX, chunkZ) == null) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static class PendingTeleport {
+        private final IWaystone waystone;
+        private final WarpMode warpMode;
+        private final WaystoneTeleportContext context;
+        private final ServerWorld targetWorld;
+        private final ChunkPos chunkPos;
+        private final long startTime;
+        private final long preparedTime;
+        private int ticksWaited;
+
+        private PendingTeleport(IWaystone waystone, WarpMode warpMode, WaystoneTeleportContext context, long startTime, long preparedTime) {
+            this.waystone = waystone;
+            this.warpMode = warpMode;
+            this.context = context;
+            this.targetWorld = context.getTargetWorld();
+            this.chunkPos = new ChunkPos(waystone.getPos());
+            this.startTime = startTime;
+            this.preparedTime = preparedTime;
+        }
+
+        private void releaseTicket() {
+            targetWorld.getChunkProvider().releaseTicket(TELEPORT_TICKET, chunkPos, 1, chunkPos);
+        }
+    }
+}
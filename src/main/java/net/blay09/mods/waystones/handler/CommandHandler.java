@@ -0,0 +1,17 @@
+package net.blay09.mods.waystones.handler;
+
+import net.blay09.mods.waystones.Waystones;
+import net.blay09.mods.waystones.command.WaystonesCommand;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+@Mod.EventBusSubscriber(modid = Waystones.MOD_ID)
+public class CommandHandler {
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        WaystonesCommand.register(event.getDispatcher());
+    }
+
+}
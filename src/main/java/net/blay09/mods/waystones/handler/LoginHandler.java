@@ -4,8 +4,11 @@ import net.blay09.mods.waystones.Waystones;
 import net.blay09.mods.waystones.api.IWaystone;
 import net.blay09.mods.waystones.config.WaystonesConfig;
 import net.blay09.mods.waystones.core.PlayerWaystoneManager;
+import net.blay09.mods.waystones.core.WaystoneChunkPreloader;
 import net.blay09.mods.waystones.core.WaystoneManager;
 import net.blay09.mods.waystones.core.WaystoneSyncManager;
+import net.blay09.mods.waystones.core.WaystoneTeleportQueue;
+import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
@@ -17,13 +20,11 @@ public class LoginHandler {
 
     @SubscribeEvent
     public static void onPlayerLogin(PlayerEvent.PlayerLoggedInEvent event) {
+        PlayerWaystoneManager.onPlayerLoggedIn(event.getPlayer());
+
         // Introduce all global waystones to this player
         List<IWaystone> globalWaystones = WaystoneManager.get().getGlobalWaystones();
-        for (IWaystone waystone : globalWaystones) {
-            if (!PlayerWaystoneManager.isWaystoneActivated(event.getPlayer(), waystone)) {
-                PlayerWaystoneManager.activateWaystone(event.getPlayer(), waystone);
-            }
-        }
+        PlayerWaystoneManager.activateWaystones(event.getPlayer(), globalWaystones);
 
         WaystoneSyncManager.sendKnownWaystones(event.getPlayer());
         WaystoneSyncManager.sendWaystoneCooldowns(event.getPlayer());
@@ -31,6 +32,13 @@ public class LoginHandler {
         WaystonesConfig.syncServerConfigs(event.getPlayer());
     }
 
+    @SubscribeEvent
+    public static void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        PlayerWaystoneManager.onPlayerLoggedOut(event.getPlayer());
+        WaystoneSyncManager.onPlayerLoggedOut(event.getPlayer());
+        WaystoneTeleportQueue.cancel((ServerPlayerEntity) event.getPlayer());
+        WaystoneChunkPreloader.release(event.getPlayer().getUniqueID());
+    }
 
 
 }
@@ -0,0 +1,34 @@
+package net.blay09.mods.waystones.handler;
+
+import net.blay09.mods.waystones.Waystones;
+import net.blay09.mods.waystones.core.TeleportEffectBatcher;
+import net.blay09.mods.waystones.core.WaystoneChunkPreloader;
+import net.blay09.mods.waystones.core.WaystoneSyncManager;
+import net.blay09.mods.waystones.core.WaystoneTeleportQueue;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+
+@Mod.EventBusSubscriber(modid = Waystones.MOD_ID)
+public class TeleportQueueHandler {
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            WaystoneTeleportQueue.tick(ServerLifecycleHooks.getCurrentServer());
+            WaystoneChunkPreloader.tick(ServerLifecycleHooks.getCurrentServer());
+            TeleportEffectBatcher.flush(ServerLifecycleHooks.getCurrentServer());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(FMLServerStoppedEvent event) {
+        WaystoneTeleportQueue.clear();
+        WaystoneChunkPreloader.clear();
+        TeleportEffectBatcher.clear();
+        WaystoneSyncManager.resetAvoidedPacketCount();
+    }
+
+}
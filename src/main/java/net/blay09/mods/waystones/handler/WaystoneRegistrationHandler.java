@@ -0,0 +1,44 @@
+package net.blay09.mods.waystones.handler;
+
+import net.blay09.mods.waystones.Waystones;
+import net.blay09.mods.waystones.core.WaystoneManager;
+import net.blay09.mods.waystones.worldgen.namegen.NameGenerator;
+import net.minecraft.world.IWorld;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+@Mod.EventBusSubscriber(modid = Waystones.MOD_ID)
+public class WaystoneRegistrationHandler {
+
+    @SubscribeEvent
+    public static void onWorldLoad(WorldEvent.Load event) {
+        if (isOverworld(event.getWorld())) {
+            WaystoneManager.load((ServerWorld) event.getWorld());
+            NameGenerator.load((ServerWorld) event.getWorld());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        if (isOverworld(event.getWorld())) {
+            WaystoneManager.unload();
+            NameGenerator.unload();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.START) {
+            WaystoneManager.get().drainPendingTasks();
+        }
+    }
+
+    private static boolean isOverworld(IWorld world) {
+        return world instanceof ServerWorld && ((ServerWorld) world).getDimensionKey() == World.OVERWORLD;
+    }
+
+}
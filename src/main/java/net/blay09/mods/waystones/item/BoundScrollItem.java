@@ -5,6 +5,7 @@ import net.blay09.mods.waystones.api.IWaystone;
 import net.blay09.mods.waystones.config.WaystonesConfig;
 import net.blay09.mods.waystones.core.PlayerWaystoneManager;
 import net.blay09.mods.waystones.core.WarpMode;
+import net.blay09.mods.waystones.core.WaystoneChunkPreloader;
 import net.blay09.mods.waystones.core.WaystoneProxy;
 import net.blay09.mods.waystones.tileentity.WaystoneTileEntity;
 import net.minecraft.client.Minecraft;
@@ -124,6 +125,8 @@ public class BoundScrollItem extends Item implements IResetUseOnDamage, IFOVOnUs
     public ItemStack onItemUseFinish(ItemStack itemStack, World world, LivingEntity entity) {
         if (!world.isRemote && entity instanceof ServerPlayerEntity) {
             PlayerEntity player = (PlayerEntity) entity;
+            // Chunk levels are only updated on the next chunk tick, so the preloaded chunk stays available for the teleport below
+            WaystoneChunkPreloader.release((ServerPlayerEntity) player);
             IWaystone boundTo = getBoundTo(player, itemStack);
             if (boundTo != null) {
                 double distance = entity.getDistanceSq(boundTo.getPos().getX(), boundTo.getPos().getY(), boundTo.getPos().getZ());
@@ -138,6 +141,13 @@ public class BoundScrollItem extends Item implements IResetUseOnDamage, IFOVOnUs
         return itemStack;
     }
 
+    @Override
+    public void onPlayerStoppedUsing(ItemStack itemStack, World world, LivingEntity entity, int timeLeft) {
+        if (!world.isRemote && entity instanceof ServerPlayerEntity) {
+            WaystoneChunkPreloader.release((ServerPlayerEntity) entity);
+        }
+    }
+
     @Override
     public ActionResult<ItemStack> onItemRightClick(World world, PlayerEntity player, Hand hand) {
         ItemStack itemStack = player.getHeldItem(hand);
@@ -150,6 +160,9 @@ public class BoundScrollItem extends Item implements IResetUseOnDamage, IFOVOnUs
             if (Waystones.proxy.isVivecraftInstalled()) {
                 onItemUseFinish(itemStack, world, player);
             } else {
+                if (!world.isRemote && !player.isHandActive()) {
+                    WaystoneChunkPreloader.preload((ServerPlayerEntity) player, boundTo, getUseDuration(itemStack));
+                }
                 player.setActiveHand(hand);
             }
 
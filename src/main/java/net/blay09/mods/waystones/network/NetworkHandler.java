@@ -11,7 +11,7 @@ import net.minecraftforge.fml.network.simple.SimpleChannel;
 
 public class NetworkHandler {
 
-    private static final String version = "1.0";
+    private static final String version = "1.2";
 
     public static final SimpleChannel channel = NetworkRegistry.newSimpleChannel(new ResourceLocation(Waystones.MOD_ID, "network"), () -> version, it -> it.equals(version), it -> it.equals(version));
 
@@ -26,6 +26,8 @@ public class NetworkHandler {
         channel.registerMessage(7, RequestEditWaystoneMessage.class, RequestEditWaystoneMessage::encode, RequestEditWaystoneMessage::decode, RequestEditWaystoneMessage::handle);
         channel.registerMessage(8, PlayerWaystoneCooldownsMessage.class, PlayerWaystoneCooldownsMessage::encode, PlayerWaystoneCooldownsMessage::decode, PlayerWaystoneCooldownsMessage::handle);
         channel.registerMessage(9, SyncConfigMessage.class, SyncConfigMessage::encode, SyncConfigMessage::decode, SyncConfigMessage::handle);
+        channel.registerMessage(10, PlayerKnownWaystonesDeltaMessage.class, PlayerKnownWaystonesDeltaMessage::encode, PlayerKnownWaystonesDeltaMessage::decode, PlayerKnownWaystonesDeltaMessage::handle);
+        channel.registerMessage(11, RequestKnownWaystonesMessage.class, RequestKnownWaystonesMessage::encode, RequestKnownWaystonesMessage::decode, RequestKnownWaystonesMessage::handle);
     }
 
     public static void sendTo(Object message, PlayerEntity player) {
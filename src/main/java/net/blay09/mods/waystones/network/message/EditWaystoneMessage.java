@@ -58,14 +58,15 @@ public class EditWaystoneMessage {
             backingWaystone.setName(legalName);
 
             if (PlayerWaystoneManager.mayEditGlobalWaystones(player)) {
-                if (!backingWaystone.isGlobal() && message.isGlobal) {
+                boolean wasGlobal = backingWaystone.isGlobal();
+                backingWaystone.setGlobal(message.isGlobal);
+                if (!wasGlobal && message.isGlobal) {
                     PlayerWaystoneManager.activeWaystoneForEveryone(backingWaystone);
                 }
-                backingWaystone.setGlobal(message.isGlobal);
             }
 
-            WaystoneManager.get().markDirty();
-            WaystoneSyncManager.sendKnownWaystonesToAll();
+            WaystoneManager.get().markDirty(backingWaystone);
+            WaystoneSyncManager.sendWaystoneUpdatedToAll(backingWaystone);
 
             player.closeScreen();
         });
@@ -0,0 +1,137 @@
+package net.blay09.mods.waystones.network.message;
+
+import net.blay09.mods.waystones.api.IWaystone;
+import net.blay09.mods.waystones.api.KnownWaystonesEvent;
+import net.blay09.mods.waystones.core.InMemoryPlayerWaystoneData;
+import net.blay09.mods.waystones.core.PlayerWaystoneManager;
+import net.blay09.mods.waystones.core.Waystone;
+import net.blay09.mods.waystones.core.WaystoneManager;
+import net.blay09.mods.waystones.network.NetworkHandler;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public class PlayerKnownWaystonesDeltaMessage {
+
+    public enum Type {
+        ADD,
+        UPDATE,
+        REMOVE,
+        REORDER
+    }
+
+    private final Type type;
+    private final int baseRevision;
+    private final IWaystone waystone;
+    private final UUID waystoneUid;
+    private final List<UUID> order;
+
+    private PlayerKnownWaystonesDeltaMessage(Type type, int baseRevision, @Nullable IWaystone waystone, @Nullable UUID waystoneUid, @Nullable List<UUID> order) {
+        this.type = type;
+        this.baseRevision = baseRevision;
+        this.waystone = waystone;
+        this.waystoneUid = waystoneUid;
+        this.order = order;
+    }
+
+    public static PlayerKnownWaystonesDeltaMessage added(int baseRevision, IWaystone waystone) {
+        return new PlayerKnownWaystonesDeltaMessage(Type.ADD, baseRevision, waystone, null, null);
+    }
+
+    public static PlayerKnownWaystonesDeltaMessage updated(int baseRevision, IWaystone waystone) {
+        return new PlayerKnownWaystonesDeltaMessage(Type.UPDATE, baseRevision, waystone, null, null);
+    }
+
+    public static PlayerKnownWaystonesDeltaMessage removed(int baseRevision, UUID waystoneUid) {
+        return new PlayerKnownWaystonesDeltaMessage(Type.REMOVE, baseRevision, null, waystoneUid, null);
+    }
+
+    public static PlayerKnownWaystonesDeltaMessage reordered(int baseRevision, List<UUID> order) {
+        return new PlayerKnownWaystonesDeltaMessage(Type.REORDER, baseRevision, null, null, order);
+    }
+
+    public static void encode(PlayerKnownWaystonesDeltaMessage message, PacketBuffer buf) {
+        buf.writeByte(message.type.ordinal());
+        buf.writeVarInt(message.baseRevision);
+        switch (message.type) {
+            case ADD:
+            case UPDATE:
+                Waystone.write(buf, message.waystone);
+                break;
+            case REMOVE:
+                buf.writeUniqueId(message.waystoneUid);
+                break;
+            case REORDER:
+                buf.writeVarInt(message.order.size());
+                for (UUID waystoneUid : message.order) {
+                    buf.writeUniqueId(waystoneUid);
+                }
+                break;
+        }
+    }
+
+    public static PlayerKnownWaystonesDeltaMessage decode(PacketBuffer buf) {
+        Type type = Type.values()[buf.readByte()];
+        int baseRevision = buf.readVarInt();
+        switch (type) {
+            case ADD:
+            case UPDATE:
+                return new PlayerKnownWaystonesDeltaMessage(type, baseRevision, Waystone.read(buf), null, null);
+            case REMOVE:
+                return removed(baseRevision, buf.readUniqueId());
+            default:
+                int count = buf.readVarInt();
+                List<UUID> order = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    order.add(buf.readUniqueId());
+                }
+                return reordered(baseRevision, order);
+        }
+    }
+
+    public static void handle(PlayerKnownWaystonesDeltaMessage message, Supplier<NetworkEvent.Context> contextSupplier) {
+        NetworkEvent.Context context = contextSupplier.get();
+        context.enqueueWork(() -> {
+            InMemoryPlayerWaystoneData playerWaystoneData = (InMemoryPlayerWaystoneData) PlayerWaystoneManager.getPlayerWaystoneData(LogicalSide.CLIENT);
+            if (playerWaystoneData.isAwaitingResync()) {
+                return;
+            }
+
+            if (message.baseRevision != playerWaystoneData.getRevision() || !apply(message, playerWaystoneData)) {
+                playerWaystoneData.setAwaitingResync(true);
+                NetworkHandler.channel.sendToServer(new RequestKnownWaystonesMessage());
+                return;
+            }
+
+            playerWaystoneData.setRevision(message.baseRevision + 1);
+            MinecraftForge.EVENT_BUS.post(new KnownWaystonesEvent(new ArrayList<>(playerWaystoneData.getWaystones())));
+        });
+        context.setPacketHandled(true);
+    }
+
+    private static boolean apply(PlayerKnownWaystonesDeltaMessage message, InMemoryPlayerWaystoneData playerWaystoneData) {
+        switch (message.type) {
+            case ADD:
+                playerWaystoneData.addWaystone(message.waystone);
+                WaystoneManager.get().updateWaystone(message.waystone);
+                return true;
+            case UPDATE:
+                WaystoneManager.get().updateWaystone(message.waystone);
+                return playerWaystoneData.updateWaystone(message.waystone);
+            case REMOVE:
+                playerWaystoneData.removeWaystone(message.waystoneUid);
+                return true;
+            case REORDER:
+                return playerWaystoneData.reorderWaystones(message.order);
+        }
+
+        return false;
+    }
+}
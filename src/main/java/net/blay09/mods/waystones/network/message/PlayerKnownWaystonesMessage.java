@@ -23,13 +23,16 @@ import java.util.function.Supplier;
 
 public class PlayerKnownWaystonesMessage {
 
+    private final int revision;
     private final List<IWaystone> waystones;
 
-    public PlayerKnownWaystonesMessage(List<IWaystone> waystones) {
+    public PlayerKnownWaystonesMessage(int revision, List<IWaystone> waystones) {
+        this.revision = revision;
         this.waystones = waystones;
     }
 
     public static void encode(PlayerKnownWaystonesMessage message, PacketBuffer buf) {
+        buf.writeVarInt(message.revision);
         buf.writeShort(message.waystones.size());
         for (IWaystone waystone : message.waystones) {
             Waystone.write(buf, waystone);
@@ -37,12 +40,13 @@ public class PlayerKnownWaystonesMessage {
     }
 
     public static PlayerKnownWaystonesMessage decode(PacketBuffer buf) {
+        int revision = buf.readVarInt();
         int waystoneCount = buf.readShort();
         List<IWaystone> waystones = new ArrayList<>();
         for (int i = 0; i < waystoneCount; i++) {
             waystones.add(Waystone.read(buf));
         }
-        return new PlayerKnownWaystonesMessage(waystones);
+        return new PlayerKnownWaystonesMessage(revision, waystones);
     }
 
     public static void handle(PlayerKnownWaystonesMessage message, Supplier<NetworkEvent.Context> contextSupplier) {
@@ -50,6 +54,8 @@ public class PlayerKnownWaystonesMessage {
         context.enqueueWork(() -> {
             InMemoryPlayerWaystoneData playerWaystoneData = (InMemoryPlayerWaystoneData) PlayerWaystoneManager.getPlayerWaystoneData(LogicalSide.CLIENT);
             playerWaystoneData.setWaystones(message.waystones);
+            playerWaystoneData.setRevision(message.revision);
+            playerWaystoneData.setAwaitingResync(false);
             for (IWaystone waystone : message.waystones) {
                 WaystoneManager.get().updateWaystone(waystone);
             }
@@ -48,6 +48,7 @@ public class RemoveWaystoneMessage {
                 IWaystone backingWaystone = ((WaystoneProxy) message.waystone).getBackingWaystone();
                 if (backingWaystone instanceof Waystone) {
                     ((Waystone) backingWaystone).setGlobal(false);
+                    WaystoneManager.get().markDirty(backingWaystone);
 
                     // Check if the waystone block still exists - if not, completely remove the waystone from existence to remove it from all players
                     // This way we can't have orphan global waystones left over. And just in case the waystone *was* just being silk-touch moved, it's easy to reactivate a global waystone for everyone (since it does that automatically).
@@ -0,0 +1,32 @@
+package net.blay09.mods.waystones.network.message;
+
+import net.blay09.mods.waystones.core.WaystoneSyncManager;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+public class RequestKnownWaystonesMessage {
+
+    public static void encode(RequestKnownWaystonesMessage message, PacketBuffer buf) {
+    }
+
+    public static RequestKnownWaystonesMessage decode(PacketBuffer buf) {
+        return new RequestKnownWaystonesMessage();
+    }
+
+    public static void handle(RequestKnownWaystonesMessage message, Supplier<NetworkEvent.Context> contextSupplier) {
+        NetworkEvent.Context context = contextSupplier.get();
+        context.enqueueWork(() -> {
+            ServerPlayerEntity player = context.getSender();
+            if (player == null) {
+                return;
+            }
+
+            WaystoneSyncManager.sendKnownWaystones(player);
+        });
+        context.setPacketHandled(true);
+    }
+
+}
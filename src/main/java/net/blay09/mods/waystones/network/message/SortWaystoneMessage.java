@@ -1,6 +1,7 @@
 package net.blay09.mods.waystones.network.message;
 
 import net.blay09.mods.waystones.core.PlayerWaystoneManager;
+import net.blay09.mods.waystones.core.WaystoneSyncManager;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.network.NetworkEvent;
@@ -37,6 +38,9 @@ public class SortWaystoneMessage {
             }
 
             PlayerWaystoneManager.swapWaystoneSorting(player, message.index, message.otherIndex);
+
+            // Confirm the resulting order so the client can correct itself if its list had diverged
+            WaystoneSyncManager.sendWaystoneOrder(player);
         });
         context.setPacketHandled(true);
     }
@@ -33,6 +33,7 @@ public class SyncConfigMessage {
             }
 
             WaystonesConfig.serverSpec.setConfig(TomlFormat.instance().createParser().parse(new ByteArrayInputStream(message.configData)));
+            WaystonesConfig.onSpecLoaded(WaystonesConfig.serverSpec);
         });
         context.setPacketHandled(true);
     }
@@ -1,6 +1,8 @@
 package net.blay09.mods.waystones.network.message;
 
 import net.blay09.mods.waystones.Waystones;
+import net.blay09.mods.waystones.client.ParticleBudget;
+import net.blay09.mods.waystones.core.TeleportEffectBatcher;
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.particles.ParticleTypes;
@@ -8,40 +10,60 @@ import net.minecraft.util.SoundEvents;
 import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.fml.network.NetworkEvent;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Supplier;
 
 public class TeleportEffectMessage {
 
-    private final BlockPos pos;
+    private final List<BlockPos> positions;
 
-    public TeleportEffectMessage(BlockPos pos) {
-        this.pos = pos;
+    public TeleportEffectMessage(List<BlockPos> positions) {
+        this.positions = positions;
     }
 
     public static void encode(TeleportEffectMessage message, PacketBuffer buf) {
-        buf.writeBlockPos(message.pos);
+        buf.writeVarInt(message.positions.size());
+        for (BlockPos pos : message.positions) {
+            buf.writeBlockPos(pos);
+        }
     }
 
     public static TeleportEffectMessage decode(PacketBuffer buf) {
-        BlockPos pos = buf.readBlockPos();
-        return new TeleportEffectMessage(pos);
+        int count = buf.readVarInt();
+        List<BlockPos> positions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            positions.add(buf.readBlockPos());
+        }
+        return new TeleportEffectMessage(positions);
     }
 
     public static void handle(TeleportEffectMessage message, Supplier<NetworkEvent.Context> contextSupplier) {
         NetworkEvent.Context context = contextSupplier.get();
         context.enqueueWork(() -> {
-            Minecraft mc = Minecraft.getInstance();
-            // Hard-limit the distance since the attenuation doesn't seem to work well enough for greater distances
-            if (mc.player != null && mc.player.getPosition().withinDistance(message.pos, 64)) {
-                Waystones.proxy.playSound(SoundEvents.BLOCK_PORTAL_TRAVEL, message.pos, 1f);
-            }
-
-            if (mc.world != null) {
-                for (int i = 0; i < 128; i++) {
-                    mc.world.addParticle(ParticleTypes.PORTAL, message.pos.getX() + (mc.world.rand.nextDouble() - 0.5) * 3, message.pos.getY() + mc.world.rand.nextDouble() * 3, message.pos.getZ() + (mc.world.rand.nextDouble() - 0.5) * 3, (mc.world.rand.nextDouble() - 0.5) * 2, -mc.world.rand.nextDouble(), (mc.world.rand.nextDouble() - 0.5) * 2);
-                }
+            for (BlockPos pos : message.positions) {
+                playTeleportEffect(pos);
             }
         });
         context.setPacketHandled(true);
     }
+
+    private static void playTeleportEffect(BlockPos pos) {
+        Minecraft mc = Minecraft.getInstance();
+        if (!ParticleBudget.tryStartTeleportEffect(pos)) {
+            return;
+        }
+
+        // Hard-limit the distance since the attenuation doesn't seem to work well enough for greater distances
+        if (mc.player != null && mc.player.getPosition().withinDistance(pos, TeleportEffectBatcher.EFFECT_RADIUS)) {
+            Waystones.proxy.playSound(SoundEvents.BLOCK_PORTAL_TRAVEL, pos, 1f);
+        }
+
+        if (mc.world != null) {
+            int particleCount = ParticleBudget.allocate(pos, 128);
+            for (int i = 0; i < particleCount; i++) {
+                mc.world.addParticle(ParticleTypes.PORTAL, pos.getX() + (mc.world.rand.nextDouble() - 0.5) * 3, pos.getY() + mc.world.rand.nextDouble() * 3, pos.getZ() + (mc.world.rand.nextDouble() - 0.5) * 3, (mc.world.rand.nextDouble() - 0.5) * 2, -mc.world.rand.nextDouble(), (mc.world.rand.nextDouble() - 0.5) * 2);
+            }
+        }
+    }
 }
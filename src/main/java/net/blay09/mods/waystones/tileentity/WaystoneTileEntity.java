@@ -1,5 +1,6 @@
 package net.blay09.mods.waystones.tileentity;
 
+import net.blay09.mods.waystones.Waystones;
 import net.blay09.mods.waystones.api.IWaystone;
 import net.blay09.mods.waystones.block.WaystoneBlock;
 import net.blay09.mods.waystones.container.WaystoneSelectionContainer;
@@ -23,7 +24,11 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.TranslationTextComponent;
 import net.minecraft.world.IServerWorld;
+import net.minecraftforge.client.model.data.IModelData;
+import net.minecraftforge.client.model.data.ModelDataMap;
+import net.minecraftforge.client.model.data.ModelProperty;
 import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.fml.LogicalSide;
 
 import javax.annotation.Nullable;
 import java.util.Objects;
@@ -31,7 +36,12 @@ import java.util.UUID;
 
 public class WaystoneTileEntity extends TileEntity {
 
+    public static final ModelProperty<Boolean> ACTIVATED = new ModelProperty<>();
+
     private IWaystone waystone = InvalidWaystone.INSTANCE;
+    private IWaystone activationCheckedFor;
+    private int activationCheckedAt;
+    private boolean isActivatedForClient;
     private boolean shouldNotInitialize;
     private boolean silkTouched;
 
@@ -66,8 +76,7 @@ public class WaystoneTileEntity extends TileEntity {
             backingWaystone = ((WaystoneProxy) waystone).getBackingWaystone();
         }
         if (backingWaystone instanceof Waystone && world != null) {
-            ((Waystone) backingWaystone).setDimension(world.getDimensionKey());
-            ((Waystone) backingWaystone).setPos(pos);
+            WaystoneManager.get().moveWaystone((Waystone) backingWaystone, world.getDimensionKey(), pos);
         }
     }
 
@@ -75,6 +84,14 @@ public class WaystoneTileEntity extends TileEntity {
     public void onDataPacket(NetworkManager net, SUpdateTileEntityPacket pkt) {
         super.onDataPacket(net, pkt);
         read(getBlockState(), pkt.getNbtCompound());
+        markForRerender();
+    }
+
+    @Override
+    public IModelData getModelData() {
+        PlayerEntity player = Waystones.proxy.getClientPlayer();
+        boolean isActivated = player != null && isActivatedForClient(player);
+        return new ModelDataMap.Builder().withInitial(ACTIVATED, isActivated).build();
     }
 
     @Override
@@ -112,6 +129,40 @@ public class WaystoneTileEntity extends TileEntity {
         return waystone;
     }
 
+    /**
+     * Client only. Remembers whether the local player has activated this waystone until the known waystones change or a different waystone is
+     * synced to this tile, so that rendering does not have to look it up every frame.
+     */
+    public boolean isActivatedForClient(PlayerEntity player) {
+        InMemoryPlayerWaystoneData playerWaystoneData = (InMemoryPlayerWaystoneData) PlayerWaystoneManager.getPlayerWaystoneData(LogicalSide.CLIENT);
+        int modificationCount = playerWaystoneData.getModificationCount();
+        if (activationCheckedFor != waystone || activationCheckedAt != modificationCount) {
+            isActivatedForClient = playerWaystoneData.isWaystoneActivated(player, waystone);
+            activationCheckedFor = waystone;
+            activationCheckedAt = modificationCount;
+        }
+
+        return isActivatedForClient;
+    }
+
+    /**
+     * Client only. Rebuilds the chunk mesh around this waystone if the local player's activation of it has changed since it was last checked.
+     */
+    public void onKnownWaystonesChanged(PlayerEntity player) {
+        boolean wasActivated = isActivatedForClient;
+        if (isActivatedForClient(player) != wasActivated) {
+            markForRerender();
+        }
+    }
+
+    private void markForRerender() {
+        if (world != null && world.isRemote) {
+            requestModelDataUpdate();
+            BlockState state = getBlockState();
+            world.notifyBlockUpdate(pos, state, state, Constants.BlockFlags.RERENDER_MAIN_THREAD);
+        }
+    }
+
     public void initializeWaystone(IServerWorld world, @Nullable LivingEntity player, boolean wasGenerated) {
         Waystone waystone = new Waystone(UUID.randomUUID(), world.getWorld().getDimensionKey(), pos, wasGenerated, player != null ? player.getUniqueID() : null);
         String name = NameGenerator.get().getName(waystone, world.getRandom());
@@ -122,8 +173,7 @@ public class WaystoneTileEntity extends TileEntity {
 
     public void initializeFromExisting(IServerWorld world, Waystone existingWaystone) {
         waystone = existingWaystone;
-        existingWaystone.setDimension(world.getWorld().getDimensionKey());
-        existingWaystone.setPos(pos);
+        WaystoneManager.get().moveWaystone(existingWaystone, world.getWorld().getDimensionKey(), pos);
     }
 
     public void initializeFromBase(WaystoneTileEntity tileEntity) {
@@ -2,21 +2,38 @@ package net.blay09.mods.waystones.worldgen;
 
 import com.mojang.serialization.Codec;
 import net.blay09.mods.waystones.config.WaystonesConfig;
+import net.blay09.mods.waystones.config.WaystonesConfigSnapshot;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.World;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.IChunk;
 import net.minecraft.world.gen.feature.WorldDecoratingHelper;
 import net.minecraft.world.gen.placement.NoPlacementConfig;
 import net.minecraft.world.gen.placement.TopSolidOnce;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 public class WaystonePlacement extends TopSolidOnce {
 
+    /**
+     * The legacy selection can only be planned by checking every chunk, so planning it is limited to a much smaller area.
+     */
+    public static final int MAX_LEGACY_PLANNED_CHUNK_RADIUS = 256;
+
+    private static final BlockState AIR = Blocks.AIR.getDefaultState();
+
+    private static volatile DimensionEligibility dimensionEligibility = new DimensionEligibility(null);
+
     public WaystonePlacement(Codec<NoPlacementConfig> codec) {
         super(codec);
     }
@@ -24,21 +41,12 @@ public class WaystonePlacement extends TopSolidOnce {
     @Override
     public Stream<BlockPos> getPositions(WorldDecoratingHelper helper, Random random, NoPlacementConfig config, BlockPos pos) {
         if (isWaystoneChunk(helper, pos)) {
-            if (helper.field_242889_a.getWorld().getDimensionKey() == World.THE_NETHER) {
-                BlockPos.Mutable mutablePos = pos.toMutable();
+            if (helper.field_242889_a.getWorld().getDimensionType().getHasCeiling()) {
+                // The heightmap only finds the ceiling in these dimensions, so search downwards for the first floor below open space
                 int topMostY = helper.func_242893_a(func_241858_a(config), pos.getX(), pos.getZ());
-                mutablePos.setY(topMostY);
-                BlockState stateAbove = helper.field_242889_a.getBlockState(mutablePos);
-                for (int i = mutablePos.getY(); i >= 1; i--) {
-                    mutablePos.setY(mutablePos.getY() - 1);
-                    BlockState state = helper.field_242889_a.getBlockState(mutablePos);
-                    if(!state.isAir() && stateAbove.isAir() && !state.isIn(Blocks.BEDROCK)) {
-                        mutablePos.setY(mutablePos.getY() + 1);
-                        break;
-                    }
-                    stateAbove = state;
-                }
-                return mutablePos.getY() > 0 ? Stream.of(mutablePos) : Stream.empty();
+                IChunk chunk = helper.field_242889_a.getChunk(pos);
+                int floorY = findFloorBelow(chunk.getSections(), pos.getX() & 15, pos.getZ() & 15, topMostY);
+                return floorY > 0 ? Stream.of(new BlockPos(pos.getX(), floorY, pos.getZ())) : Stream.empty();
             }
             return super.getPositions(helper, random, config, pos);
         } else {
@@ -46,30 +54,173 @@ public class WaystonePlacement extends TopSolidOnce {
         }
     }
 
-    private boolean isWaystoneChunk(WorldDecoratingHelper world, BlockPos pos) {
-        final int chunkDistance = WaystonesConfig.COMMON.worldGenFrequency.get();
-        if (chunkDistance == 0) {
-            return false;
+    /**
+     * Returns the y position above the highest non-bedrock block below startY that has air above it, or -1 if there is none. Reads the chunk sections
+     * directly and skips sections that are entirely air.
+     */
+    static int findFloorBelow(ChunkSection[] sections, int x, int z, int startY) {
+        BlockState stateAbove = getBlockState(sections, x, startY, z);
+        for (int y = Math.min(startY, sections.length << 4) - 1; y >= 0; y--) {
+            ChunkSection section = sections[y >> 4];
+            if (ChunkSection.isEmpty(section)) {
+                stateAbove = AIR;
+                y &= ~15;
+                continue;
+            }
+
+            BlockState state = section.getBlockState(x, y & 15, z);
+            if (!state.isAir() && stateAbove.isAir() && !state.isIn(Blocks.BEDROCK)) {
+                return y + 1;
+            }
+            stateAbove = state;
         }
 
+        return -1;
+    }
+
+    private static BlockState getBlockState(ChunkSection[] sections, int x, int y, int z) {
+        int sectionIndex = y >> 4;
+        if (sectionIndex < 0 || sectionIndex >= sections.length || ChunkSection.isEmpty(sections[sectionIndex])) {
+            return AIR;
+        }
+
+        return sections[sectionIndex].getBlockState(x, y & 15, z);
+    }
+
+    private boolean isWaystoneChunk(WorldDecoratingHelper world, BlockPos pos) {
         ResourceLocation dimension = world.field_242889_a.getWorld().getDimensionKey().getLocation();
-        List<? extends String> dimensionAllowList = WaystonesConfig.COMMON.worldGenDimensionAllowList.get();
-        List<? extends String> dimensionDenyList = WaystonesConfig.COMMON.worldGenDimensionDenyList.get();
-        if (!dimensionAllowList.isEmpty() && !dimensionAllowList.contains(dimension.toString())) {
-            return false;
-        } else if (!dimensionDenyList.isEmpty() && dimensionDenyList.contains(dimension.toString())) {
+        return isWaystoneChunk(world.field_242889_a.getSeed(), dimension, pos);
+    }
+
+    public static boolean isWaystoneChunk(long seed, ResourceLocation dimension, BlockPos pos) {
+        WaystonesConfigSnapshot config = WaystonesConfig.getSnapshot();
+        final int chunkDistance = config.worldGenFrequency;
+        if (chunkDistance == 0 || !isDimensionEligible(config, dimension)) {
             return false;
         }
 
+        if (config.legacyWorldGenPlacement) {
+            return isWaystoneChunkLegacy(seed, chunkDistance, pos.getX(), pos.getZ());
+        }
+
+        return isWaystoneChunk(seed, chunkDistance, pos.getX() >> 4, pos.getZ() >> 4);
+    }
+
+    /**
+     * The world is split into regions of chunkDistance x chunkDistance chunks, each of which gets exactly one waystone chunk at an offset derived
+     * from the seed and the region coordinates.
+     */
+    public static boolean isWaystoneChunk(long seed, int chunkDistance, int chunkX, int chunkZ) {
+        int regionX = Math.floorDiv(chunkX, chunkDistance);
+        int regionZ = Math.floorDiv(chunkZ, chunkDistance);
+        long hash = regionHash(seed, regionX, regionZ);
+        return chunkX - regionX * chunkDistance == getOffsetX(hash, chunkDistance) && chunkZ - regionZ * chunkDistance == getOffsetZ(hash, chunkDistance);
+    }
+
+    /**
+     * The Random based selection used before region based placement, kept for worlds that want waystones to keep generating at the same positions.
+     */
+    public static boolean isWaystoneChunkLegacy(long seed, int chunkDistance, int blockX, int blockZ) {
         final int maxDeviation = (int) Math.ceil(chunkDistance / 2f);
-        int chunkX = pos.getX() / 16;
-        int chunkZ = pos.getZ() / 16;
-        int devGridX = pos.getX() / 16 * maxDeviation;
-        int devGridZ = pos.getZ() / 16 * maxDeviation;
-        long seed = world.field_242889_a.getSeed();
+        int chunkX = blockX / 16;
+        int chunkZ = blockZ / 16;
+        int devGridX = blockX / 16 * maxDeviation;
+        int devGridZ = blockZ / 16 * maxDeviation;
         Random random = new Random(seed * devGridX * devGridZ);
         int chunkOffsetX = random.nextInt(maxDeviation);
         int chunkOffsetZ = random.nextInt(maxDeviation);
         return (chunkX + chunkOffsetX) % chunkDistance == 0 && (chunkZ + chunkOffsetZ) % chunkDistance == 0;
     }
+
+    public static ChunkPos getPlannedChunk(long seed, int chunkDistance, int regionX, int regionZ) {
+        long hash = regionHash(seed, regionX, regionZ);
+        return new ChunkPos(regionX * chunkDistance + getOffsetX(hash, chunkDistance), regionZ * chunkDistance + getOffsetZ(hash, chunkDistance));
+    }
+
+    /**
+     * Lists the waystone chunks planned within the given square of chunks, without loading or generating any of them. Returns an empty list if
+     * waystones do not generate in this dimension.
+     */
+    public static List<ChunkPos> getPlannedChunks(long seed, ResourceLocation dimension, ChunkPos center, int chunkRadius) {
+        WaystonesConfigSnapshot config = WaystonesConfig.getSnapshot();
+        final int chunkDistance = config.worldGenFrequency;
+        if (chunkDistance == 0 || !isDimensionEligible(config, dimension)) {
+            return Collections.emptyList();
+        }
+
+        List<ChunkPos> result = new ArrayList<>();
+        if (config.legacyWorldGenPlacement) {
+            // The legacy selection has no regions to enumerate, so every chunk in the square has to be checked
+            int legacyChunkRadius = Math.min(chunkRadius, MAX_LEGACY_PLANNED_CHUNK_RADIUS);
+            for (int chunkX = center.x - legacyChunkRadius; chunkX <= center.x + legacyChunkRadius; chunkX++) {
+                for (int chunkZ = center.z - legacyChunkRadius; chunkZ <= center.z + legacyChunkRadius; chunkZ++) {
+                    if (isWaystoneChunkLegacy(seed, chunkDistance, chunkX << 4, chunkZ << 4)) {
+                        result.add(new ChunkPos(chunkX, chunkZ));
+                    }
+                }
+            }
+            return result;
+        }
+
+        int minRegionX = Math.floorDiv(center.x - chunkRadius, chunkDistance);
+        int maxRegionX = Math.floorDiv(center.x + chunkRadius, chunkDistance);
+        int minRegionZ = Math.floorDiv(center.z - chunkRadius, chunkDistance);
+        int maxRegionZ = Math.floorDiv(center.z + chunkRadius, chunkDistance);
+        for (int regionX = minRegionX; regionX <= maxRegionX; regionX++) {
+            for (int regionZ = minRegionZ; regionZ <= maxRegionZ; regionZ++) {
+                ChunkPos chunkPos = getPlannedChunk(seed, chunkDistance, regionX, regionZ);
+                if (Math.abs(chunkPos.x - center.x) <= chunkRadius && Math.abs(chunkPos.z - center.z) <= chunkRadius) {
+                    result.add(chunkPos);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static long regionHash(long seed, int regionX, int regionZ) {
+        return mix(seed ^ (regionX * 0x9E3779B97F4A7C15L) ^ (regionZ * 0xC2B2AE3D27D4EB4FL));
+    }
+
+    private static int getOffsetX(long regionHash, int chunkDistance) {
+        return (int) Long.remainderUnsigned(regionHash, chunkDistance);
+    }
+
+    private static int getOffsetZ(long regionHash, int chunkDistance) {
+        return (int) Long.remainderUnsigned(mix(regionHash), chunkDistance);
+    }
+
+    private static long mix(long value) {
+        // SplitMix64 finalizer
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private static boolean isDimensionEligible(WaystonesConfigSnapshot config, ResourceLocation dimension) {
+        DimensionEligibility eligibility = dimensionEligibility;
+        if (eligibility.config != config) {
+            eligibility = new DimensionEligibility(config);
+            dimensionEligibility = eligibility;
+        }
+
+        return eligibility.byDimension.computeIfAbsent(dimension, it -> {
+            if (!config.worldGenDimensionAllowList.isEmpty() && !config.worldGenDimensionAllowList.contains(it)) {
+                return false;
+            }
+            return !config.worldGenDimensionDenyList.contains(it);
+        });
+    }
+
+    /**
+     * Caches whether a dimension may generate waystones, for as long as the config snapshot it was decided on is current.
+     */
+    private static class DimensionEligibility {
+        private final WaystonesConfigSnapshot config;
+        private final Map<ResourceLocation, Boolean> byDimension = new ConcurrentHashMap<>();
+
+        private DimensionEligibility(@Nullable WaystonesConfigSnapshot config) {
+            this.config = config;
+        }
+    }
 }
@@ -1,6 +1,5 @@
 package net.blay09.mods.waystones.worldgen.namegen;
 
-import com.google.common.collect.Sets;
 import net.blay09.mods.waystones.Waystones;
 import net.blay09.mods.waystones.api.GenerateWaystoneNameEvent;
 import net.blay09.mods.waystones.api.IWaystone;
@@ -18,62 +17,119 @@ import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.fml.server.ServerLifecycleHooks;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
-import java.util.Set;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class NameGenerator extends WorldSavedData {
 
     private static final String DATA_NAME = Waystones.MOD_ID + "_NameGenerator";
     private static final String USED_NAMES = "UsedNames";
+    private static final String CUSTOM_NAME_POOL = "CustomNamePool";
+    private static final String CUSTOM_NAME_CURSOR = "CustomNameCursor";
+    private static final String NEXT_SUFFIXES = "NextSuffixes";
     private static final NameGenerator clientStorageCopy = new NameGenerator();
+    private static volatile NameGenerator serverInstance;
 
     private final MrPorkNameGenerator generator = new MrPorkNameGenerator();
-    private final Set<String> usedNames = Sets.newHashSet();
+    private final Set<String> usedNames = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicInteger> nextSuffixes = new ConcurrentHashMap<>();
+    private volatile CustomNamePool customNamePool = new CustomNamePool(Collections.emptyList(), null, 0);
 
-    private NameGenerator() {
+    NameGenerator() {
         super(DATA_NAME);
     }
 
-    public synchronized String getName(IWaystone waystone, Random rand) {
-        String name = null;
-        List<? extends String> customNames = WaystonesConfig.COMMON.customWaystoneNames.get();
-        Collections.shuffle(customNames, rand);
-        for (String customName : customNames) {
-            if (!usedNames.contains(customName)) {
-                name = customName;
-                break;
-            }
-        }
-
+    /**
+     * Safe to call from world gen worker threads. A name is claimed by adding it to the used names, so two threads can never pick the same one.
+     */
+    public String getName(IWaystone waystone, Random rand) {
+        String name = nextCustomName(rand);
         if (name == null) {
-            name = generator.randomName(rand);
-            String tryName = name;
-            int i = 1;
-            while (usedNames.contains(tryName)) {
-                tryName = name + " " + RomanNumber.toRoman(i);
-                i++;
-            }
-
-            name = tryName;
+            name = nextFreeName(generator.randomName(rand));
         }
 
         GenerateWaystoneNameEvent event = new GenerateWaystoneNameEvent(waystone, name);
         MinecraftForge.EVENT_BUS.post(event);
-        name = event.getName();
+        if (!event.getName().equals(name)) {
+            usedNames.remove(name);
+            name = event.getName();
+            usedNames.add(name);
+        }
 
-        usedNames.add(name);
         markDirty();
         return name;
     }
 
+    /**
+     * Hands out the custom names in a shuffled order that is decided once per config change. The cursor only ever moves forward, so every
+     * custom name is looked at a single time.
+     */
+    @Nullable
+    private String nextCustomName(Random rand) {
+        CustomNamePool pool = getCustomNamePool(rand);
+        int index;
+        while ((index = pool.cursor.getAndIncrement()) < pool.names.size()) {
+            String customName = pool.names.get(index);
+            if (usedNames.add(customName)) {
+                return customName;
+            }
+        }
+
+        return null;
+    }
+
+    private CustomNamePool getCustomNamePool(Random rand) {
+        List<? extends String> customNames = WaystonesConfig.COMMON.customWaystoneNames.get();
+        CustomNamePool pool = customNamePool;
+        if (pool.source != customNames) {
+            // The config list is only replaced when the config is (re)loaded, so the contents only need to be compared then
+            if (pool.names.size() == customNames.size() && new HashSet<>(pool.names).equals(new HashSet<>(customNames))) {
+                pool = new CustomNamePool(pool.names, customNames, pool.cursor.get());
+            } else {
+                List<String> names = new ArrayList<>(customNames);
+                Collections.shuffle(names, rand);
+                pool = new CustomNamePool(names, customNames, 0);
+            }
+            customNamePool = pool;
+        }
+
+        return pool;
+    }
+
+    /**
+     * Returns the base name itself if it is still free, or the base name followed by the next free roman numeral. The suffix to try next is
+     * remembered per base name, so suffixes that are known to be taken are never checked again.
+     */
+    private String nextFreeName(String baseName) {
+        AtomicInteger nextSuffix = nextSuffixes.computeIfAbsent(baseName, it -> new AtomicInteger());
+        while (true) {
+            int suffix = nextSuffix.getAndIncrement();
+            String name = suffix == 0 ? baseName : baseName + " " + RomanNumber.toRoman(suffix);
+            if (usedNames.add(name)) {
+                return name;
+            }
+        }
+    }
+
     @Override
     public void read(CompoundNBT compound) {
         ListNBT tagList = compound.getList(USED_NAMES, Constants.NBT.TAG_STRING);
         for (INBT tag : tagList) {
             usedNames.add(tag.getString());
         }
+
+        List<String> customNames = new ArrayList<>();
+        for (INBT tag : compound.getList(CUSTOM_NAME_POOL, Constants.NBT.TAG_STRING)) {
+            customNames.add(tag.getString());
+        }
+        customNamePool = new CustomNamePool(customNames, null, compound.getInt(CUSTOM_NAME_CURSOR));
+
+        CompoundNBT nextSuffixesTag = compound.getCompound(NEXT_SUFFIXES);
+        for (String baseName : nextSuffixesTag.keySet()) {
+            nextSuffixes.put(baseName, new AtomicInteger(nextSuffixesTag.getInt(baseName)));
+        }
     }
 
     @Override
@@ -83,12 +139,42 @@ public class NameGenerator extends WorldSavedData {
             tagList.add(StringNBT.valueOf(entry));
         }
         compound.put(USED_NAMES, tagList);
+
+        CustomNamePool pool = customNamePool;
+        ListNBT customNamesTag = new ListNBT();
+        for (String customName : pool.names) {
+            customNamesTag.add(StringNBT.valueOf(customName));
+        }
+        compound.put(CUSTOM_NAME_POOL, customNamesTag);
+        compound.putInt(CUSTOM_NAME_CURSOR, Math.min(pool.cursor.get(), pool.names.size()));
+
+        CompoundNBT nextSuffixesTag = new CompoundNBT();
+        for (Map.Entry<String, AtomicInteger> entry : nextSuffixes.entrySet()) {
+            nextSuffixesTag.putInt(entry.getKey(), entry.getValue().get());
+        }
+        compound.put(NEXT_SUFFIXES, nextSuffixesTag);
         return compound;
     }
 
+    /**
+     * Loads the saved data on the server thread as soon as the overworld exists, so world gen workers never have to create it.
+     */
+    public static void load(ServerWorld overworld) {
+        serverInstance = overworld.getSavedData().getOrCreate(NameGenerator::new, DATA_NAME);
+    }
+
+    public static void unload() {
+        serverInstance = null;
+    }
+
     public static NameGenerator get() {
         MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
         if (server != null) {
+            NameGenerator instance = serverInstance;
+            if (instance != null) {
+                return instance;
+            }
+
             ServerWorld overworld = server.getWorld(World.OVERWORLD);
             DimensionSavedDataManager storage = overworld.getSavedData();
             return storage.getOrCreate(NameGenerator::new, DATA_NAME);
@@ -97,4 +183,16 @@ public class NameGenerator extends WorldSavedData {
         return clientStorageCopy;
     }
 
+    private static class CustomNamePool {
+        private final List<String> names;
+        private final List<? extends String> source;
+        private final AtomicInteger cursor;
+
+        private CustomNamePool(List<String> names, @Nullable List<? extends String> source, int cursor) {
+            this.names = names;
+            this.source = source;
+            this.cursor = new AtomicInteger(cursor);
+        }
+    }
+
 }
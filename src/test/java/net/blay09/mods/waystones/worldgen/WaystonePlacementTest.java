@@ -0,0 +1,94 @@
+package net.blay09.mods.waystones.worldgen;
+
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.registry.Bootstrap;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WaystonePlacementTest {
+
+    @BeforeClass
+    public static void bootstrap() {
+        // WaystonePlacement refers to vanilla blocks, which can only be loaded once the registries are set up
+        Bootstrap.register();
+    }
+
+    /**
+     * Locks the world gen layout: changing the region hash would move the waystones of every existing world in newly generated chunks.
+     */
+    @Test
+    public void plannedChunksMatchKnownLayout() {
+        assertPlannedChunk(1234L, 30, 0, 0, 9, 27);
+        assertPlannedChunk(1234L, 30, 1, -1, 37, -20);
+        assertPlannedChunk(1234L, 30, -5, 7, -140, 235);
+        assertPlannedChunk(1234L, 30, 100, -250, 3008, -7497);
+        assertPlannedChunk(-98765L, 7, 0, 0, 4, 2);
+        assertPlannedChunk(-98765L, 7, 1, -1, 10, -6);
+        assertPlannedChunk(-98765L, 7, -5, 7, -32, 53);
+        assertPlannedChunk(-98765L, 7, 100, -250, 700, -1745);
+    }
+
+    @Test
+    public void distributionIsEvenForDefaultDistance() {
+        checkDistribution(1234L, 30, 40);
+    }
+
+    @Test
+    public void distributionIsEvenForSmallDistance() {
+        checkDistribution(-98765L, 7, 200);
+    }
+
+    private static void assertPlannedChunk(long seed, int chunkDistance, int regionX, int regionZ, int expectedChunkX, int expectedChunkZ) {
+        ChunkPos plannedChunk = WaystonePlacement.getPlannedChunk(seed, chunkDistance, regionX, regionZ);
+        assertEquals("Planned chunk x of region " + regionX + ", " + regionZ, expectedChunkX, plannedChunk.x);
+        assertEquals("Planned chunk z of region " + regionX + ", " + regionZ, expectedChunkZ, plannedChunk.z);
+        assertTrue(WaystonePlacement.isWaystoneChunk(seed, chunkDistance, expectedChunkX, expectedChunkZ));
+    }
+
+    /**
+     * Verifies that every region around the origin contains exactly one waystone chunk, and that the offsets within the regions are spread evenly
+     * (chi-squared over the x and z offsets).
+     */
+    private static void checkDistribution(long seed, int chunkDistance, int regions) {
+        int[] offsetCountsX = new int[chunkDistance];
+        int[] offsetCountsZ = new int[chunkDistance];
+        for (int regionX = -regions / 2; regionX < regions / 2; regionX++) {
+            for (int regionZ = -regions / 2; regionZ < regions / 2; regionZ++) {
+                int found = 0;
+                for (int offsetX = 0; offsetX < chunkDistance; offsetX++) {
+                    for (int offsetZ = 0; offsetZ < chunkDistance; offsetZ++) {
+                        int chunkX = regionX * chunkDistance + offsetX;
+                        int chunkZ = regionZ * chunkDistance + offsetZ;
+                        if (WaystonePlacement.isWaystoneChunk(seed, chunkDistance, chunkX, chunkZ)) {
+                            offsetCountsX[offsetX]++;
+                            offsetCountsZ[offsetZ]++;
+                            found++;
+                        }
+                    }
+                }
+
+                assertEquals("Waystone chunks in region " + regionX + ", " + regionZ, 1, found);
+            }
+        }
+
+        double expected = (double) regions * regions / chunkDistance;
+        // Generous bound, roughly p < 0.0001 for the degrees of freedom used here
+        double limit = (chunkDistance - 1) + 6 * Math.sqrt(2 * (chunkDistance - 1));
+        double chiSquaredX = chiSquared(offsetCountsX, expected);
+        double chiSquaredZ = chiSquared(offsetCountsZ, expected);
+        assertTrue("Chi-squared of x offsets is " + chiSquaredX + ", limit " + limit, chiSquaredX <= limit);
+        assertTrue("Chi-squared of z offsets is " + chiSquaredZ + ", limit " + limit, chiSquaredZ <= limit);
+    }
+
+    private static double chiSquared(int[] counts, double expected) {
+        double sum = 0;
+        for (int count : counts) {
+            sum += (count - expected) * (count - expected) / expected;
+        }
+        return sum;
+    }
+
+}